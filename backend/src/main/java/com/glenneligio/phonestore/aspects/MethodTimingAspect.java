@@ -0,0 +1,75 @@
+package com.glenneligio.phonestore.aspects;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Times every public controller and service method, in place of the entering and exiting log lines they
+// used to write. The timers are created once per method, a call only looks them up and records its duration.
+// A sampled share of the calls is written to the log with its duration as well.
+@Aspect
+@Component
+@Slf4j
+public class MethodTimingAspect {
+    public static final String METRIC_NAME = "phone-store.method";
+
+    private final MeterRegistry meterRegistry;
+    private final double traceSampleRate;
+    private final Map<Method, MethodTimers> timersByMethod = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MethodTimingAspect(MeterRegistry meterRegistry,
+                              @Value("${phone-store.instrumentation.trace-sample-rate:0.01}") double traceSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.traceSampleRate = traceSampleRate;
+    }
+
+    @Around("execution(public * *(..)) && (within(com.glenneligio.phonestore.controllers..*) || within(com.glenneligio.phonestore.service..*))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            MethodTimers timers = timersByMethod.computeIfAbsent(method, this::createTimers);
+            (failed ? timers.error() : timers.success()).record(duration, TimeUnit.NANOSECONDS);
+            if(traceSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < traceSampleRate) {
+                log.info("{}.{} {} in {} us", method.getDeclaringClass().getSimpleName(), method.getName(),
+                        failed ? "failed" : "returned", TimeUnit.NANOSECONDS.toMicros(duration));
+            }
+        }
+    }
+
+    private MethodTimers createTimers(Method method) {
+        return new MethodTimers(createTimer(method, "success"), createTimer(method, "error"));
+    }
+
+    private Timer createTimer(Method method, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Latency of the controller and service methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record MethodTimers(Timer success, Timer error) {
+    }
+}
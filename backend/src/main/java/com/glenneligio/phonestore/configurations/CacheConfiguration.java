@@ -0,0 +1,39 @@
+package com.glenneligio.phonestore.configurations;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Caches of the brand and phone lookups. Each cache has its own size and ttl, given as a caffeine spec,
+// and records its stats so that the hits and misses show up in the cache.gets metric of the actuator.
+// The cache manager is transaction aware, so puts and evictions made inside a transaction only happen
+// after it commits and a rolled back write never reaches the cache.
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+    public static final String BRANDS = "brands";
+    public static final String BRANDS_BY_NAME = "brandsByName";
+    public static final String PHONES = "phones";
+    public static final String PHONES_BY_BRAND = "phonesByBrand";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${phone-store.cache.brands:maximumSize=1000,expireAfterWrite=1h}") String brandsSpec,
+                                     @Value("${phone-store.cache.phones:maximumSize=10000,expireAfterWrite=5m}") String phonesSpec,
+                                     @Value("${phone-store.cache.phones-by-brand:maximumSize=1000,expireAfterWrite=5m}") String phonesByBrandSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches below can be used, a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(BRANDS, Caffeine.from(brandsSpec).recordStats().build());
+        cacheManager.registerCustomCache(BRANDS_BY_NAME, Caffeine.from(brandsSpec).recordStats().build());
+        cacheManager.registerCustomCache(PHONES, Caffeine.from(phonesSpec).recordStats().build());
+        cacheManager.registerCustomCache(PHONES_BY_BRAND, Caffeine.from(phonesByBrandSpec).recordStats().build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
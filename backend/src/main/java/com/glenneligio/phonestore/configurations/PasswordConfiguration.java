@@ -1,13 +1,30 @@
 package com.glenneligio.phonestore.configurations;
 
+import com.glenneligio.phonestore.util.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordConfiguration {
     @Bean
     public BCryptPasswordEncoder getPasswordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    // Used by UserService so that hashing does not run on the request threads
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public BoundedPasswordEncoder getBoundedPasswordEncoder(BCryptPasswordEncoder passwordEncoder,
+                                                            MeterRegistry meterRegistry,
+                                                            @Value("${phone-store.security.password-hashing.pool-size:2}") int poolSize,
+                                                            @Value("${phone-store.security.password-hashing.queue-capacity:50}") int queueCapacity,
+                                                            @Value("${phone-store.security.password-hashing.timeout:PT5S}") Duration timeout) {
+        return new BoundedPasswordEncoder(passwordEncoder, poolSize, queueCapacity, timeout, meterRegistry);
+    }
 }
@@ -45,13 +45,18 @@ public class SecurityConfiguration {
                 // FOR ORDERS
                 .requestMatchers(HttpMethod.GET, "/api/*/orders/*/items", "/api/*/users/@self/orders").hasAuthority(UserType.CUSTOMER.getType())
                 .requestMatchers(HttpMethod.PUT, "/api/*/orders/*/items/*").hasAuthority(UserType.CUSTOMER.getType())
-                .requestMatchers(HttpMethod.POST, "/api/*/orders/*/items", "/api/*/orders").hasAuthority(UserType.CUSTOMER.getType())
+                .requestMatchers(HttpMethod.POST, "/api/*/orders/*/items", "/api/*/orders/*/items/compact", "/api/*/orders", "/api/*/orders/compact").hasAuthority(UserType.CUSTOMER.getType())
                 .requestMatchers(HttpMethod.DELETE, "/api/*/orders/*/items/*", "/api/*/orders/*").hasAuthority(UserType.CUSTOMER.getType())
+                // FOR USERS, a patch can change the password, type and active flag of any user
+                .requestMatchers(HttpMethod.PATCH, "/api/*/users/*").hasAuthority(UserType.ADMIN.getType())
                 // FOR GETTING BRAND AND PRODUCT INFO
                 .requestMatchers(HttpMethod.GET, "/api/*/brands").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/*/phones").permitAll()
                 // FOR OPEN API DOCS AND SWAGGER UI
                 .requestMatchers(HttpMethod.GET, "/swagger-ui.html", "/v3/api-docs").permitAll()
+                // FOR ACTUATOR, only the health check is public, the metrics are for admins
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority(UserType.ADMIN.getType())
                 // LOGIN AND REGISTER
                 .requestMatchers(HttpMethod.POST, "/api/*/users/login", "/api/*/users/register").permitAll()
 //                .anyRequest().hasAnyAuthority(UserType.ADMIN.getType());
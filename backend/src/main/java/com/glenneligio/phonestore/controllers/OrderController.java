@@ -22,9 +22,6 @@ import java.util.List;
 @RequestMapping("/api/v1/orders")
 @Slf4j
 public class OrderController {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
-    public static final String SERVICE_RESPONSE = "Service response: {}";
     private OrderService orderService;
     private OrderItemService orderItemService;
 
@@ -36,35 +33,23 @@ public class OrderController {
 
     @GetMapping
     public ResponseEntity<List<OrderDto>> getAllOrders() {
-        final String METHOD_NAME = "getAllOrders";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<OrderEntity> orderEntityList = orderService.getAllOrders();
         List<OrderDto> orderDtoList = orderEntityList.stream().map(OrderDto::convertToDto).toList();
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully fetch all orders. Count: {}", orderDtoList.size());
-        log.debug(SERVICE_RESPONSE, orderDtoList);
         return ResponseEntity.ok(orderDtoList);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
-        final String METHOD_NAME = "getOrderById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         OrderEntity orderEntity = orderService.getOrderById(id);
         OrderDto orderDto = OrderDto.convertToDto(orderEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully fetch order with id {}", id);
-        log.debug(SERVICE_RESPONSE, orderDto);
         return ResponseEntity.ok(orderDto);
     }
 
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(@RequestBody @Valid CreateOrderDto orderDto,
                                                 Authentication authentication) {
-        final String METHOD_NAME = "createOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Creating order with information {}", orderDto);
-
         OrderEntity orderEntityInput = CreateOrderDto.convertToEntity(orderDto);
 
         String username = ((XUserDetails) authentication.getPrincipal()).getUsername();
@@ -74,9 +59,7 @@ public class OrderController {
 
         OrderEntity orderCreated = orderService.createOrder(orderEntityInput);
         OrderDto orderDtoResponse = OrderDto.convertToDto(orderCreated);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully created order.");
-        log.debug(SERVICE_RESPONSE, orderDtoResponse);
 
         return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
@@ -84,6 +67,27 @@ public class OrderController {
                 .toUri()).body(orderDtoResponse);
     }
 
+    // Same as createOrder, but the order lines only have the phone id and the quantity
+    @PostMapping("/compact")
+    public ResponseEntity<OrderDto> createCompactOrder(@RequestBody @Valid PlaceOrderDto orderDto,
+                                                       Authentication authentication) {
+        OrderEntity orderEntityInput = PlaceOrderDto.convertToEntity(orderDto);
+
+        String username = ((XUserDetails) authentication.getPrincipal()).getUsername();
+        UserEntity user = new UserEntity();
+        user.setUsername(username);
+        orderEntityInput.setUser(user);
+
+        OrderEntity orderCreated = orderService.createOrder(orderEntityInput);
+        OrderDto orderDtoResponse = OrderDto.convertToDto(orderCreated);
+        log.debug("Successfully created order.");
+
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/orders/{id}")
+                .buildAndExpand(orderCreated.getId())
+                .toUri()).body(orderDtoResponse);
+    }
+
     // SHOULD NOT BE EXPOSED, UPDATES IN ORDER IS DONE ONLY IN
     // DELETE /orders/{id} and
     // DELETE/UPDATE/POST /orders/{orderId}/items ENDPOINTS
@@ -91,10 +95,6 @@ public class OrderController {
     public ResponseEntity<OrderDto> updateOrder (@PathVariable Long id,
                                                  @RequestBody @Valid UpdateOrderDto orderDto,
                                                  Authentication authentication) {
-        final String METHOD_NAME = "updateOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Updating order with id {}, and info {}", id, orderDto);
-
         OrderEntity orderEntityInput = UpdateOrderDto.convertToEntity(orderDto);
 
         String username = ((XUserDetails) authentication.getPrincipal()).getUsername();
@@ -105,22 +105,16 @@ public class OrderController {
         OrderEntity orderEntityUpdated = orderService.updateOrder(id, orderEntityInput);
         OrderDto orderDtoResponse = OrderDto.convertToDto(orderEntityUpdated);
 
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.debug(SERVICE_RESPONSE, orderDtoResponse);
         return ResponseEntity.ok(orderDtoResponse);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteOrder(@PathVariable Long id,
                                               Authentication authentication) {
-        final String METHOD_NAME = "deleteOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Deleting order with id {}", id);
-        OrderEntity orderEntity = orderService.getOrderById(id);
-        isOrderOwnedByUser(orderEntity, authentication);
+        isOrderOwnedByUser(id, authentication);
 
         orderService.deleteOrder(id);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully deleted order with id {}", id);
         return ResponseEntity.ok().build();
     }
@@ -128,15 +122,11 @@ public class OrderController {
     @GetMapping("/{orderId}/items")
     public ResponseEntity<List<OrderItemDto>> getItemsInOrder(@PathVariable Long orderId,
                                                               Authentication authentication) {
-        final String METHOD_NAME = "getItemsInOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Getting order items on order with id {}", orderId);
         OrderEntity orderEntity = orderService.getOrderById(orderId);
-        isOrderOwnedByUser(orderEntity, authentication);
+        isOrderOwnedByUser(orderId, orderEntity.getUser().getUsername(), authentication);
 
         List<OrderItemDto> orderItemDtoList = orderEntity.getOrderItems().stream().map(OrderItemDto::convertToDto).toList();
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.debug("Successfully fetch all order items for order with id {}. Order item: {}", orderEntity, orderItemDtoList);
         return ResponseEntity.ok(orderItemDtoList);
     }
 
@@ -144,19 +134,31 @@ public class OrderController {
     public ResponseEntity<OrderItemDto> addOrderItem(@PathVariable Long orderId,
                                                      @RequestBody @Valid OrderItemDto orderItemDto,
                                                      Authentication authentication) {
-        final String METHOD_NAME = "addOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Adding new order item for order with id {}, and order item {}", orderId, orderItemDto);
-        OrderEntity orderEntity = orderService.getOrderById(orderId);
-        isOrderOwnedByUser(orderEntity, authentication);
+        isOrderOwnedByUser(orderId, authentication);
 
         OrderItemEntity orderItemEntity = OrderItemDto.convertToEntity(orderItemDto);
-        orderItemEntity.setOrder(orderEntity);
+        orderItemEntity.setOrder(orderService.getOrderReference(orderId));
+
+        OrderItemEntity orderItemCreated = orderItemService.createOrderItem(orderItemEntity);
+        OrderItemDto orderItemDtoCreated = OrderItemDto.convertToDto(orderItemCreated);
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/order-items/{id}")
+                .buildAndExpand(orderItemCreated.getId())
+                .toUri()).body(orderItemDtoCreated);
+    }
+
+    // Same as addOrderItem, but the order line only has the phone id and the quantity
+    @PostMapping("/{orderId}/items/compact")
+    public ResponseEntity<OrderItemDto> addCompactOrderItem(@PathVariable Long orderId,
+                                                            @RequestBody @Valid OrderLineDto orderLineDto,
+                                                            Authentication authentication) {
+        isOrderOwnedByUser(orderId, authentication);
+
+        OrderItemEntity orderItemEntity = OrderLineDto.convertToEntity(orderLineDto);
+        orderItemEntity.setOrder(orderService.getOrderReference(orderId));
 
         OrderItemEntity orderItemCreated = orderItemService.createOrderItem(orderItemEntity);
         OrderItemDto orderItemDtoCreated = OrderItemDto.convertToDto(orderItemCreated);
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.debug("Successfully added an order item in order {}", orderItemDtoCreated);
         return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/v1/order-items/{id}")
                 .buildAndExpand(orderItemCreated.getId())
@@ -168,19 +170,13 @@ public class OrderController {
                                                         @PathVariable Long orderItemId,
                                                         @RequestBody @Valid OrderItemDto orderItemDto,
                                                         Authentication authentication) {
-        final String METHOD_NAME = "updateOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Editing order item with id {}, on order with id {}, with info {}", orderItemId, orderId, orderItemDto);
-        OrderEntity orderEntity = orderService.getOrderById(orderId);
-        isOrderOwnedByUser(orderEntity, authentication);
+        isOrderOwnedByUser(orderId, authentication);
 
         OrderItemEntity orderItemEntity = OrderItemDto.convertToEntity(orderItemDto);
-        orderItemEntity.setOrder(orderEntity);
+        orderItemEntity.setOrder(orderService.getOrderReference(orderId));
 
         OrderItemEntity updatedOrderItemEntity = orderItemService.updateOrderItem(orderItemId, orderItemEntity);
         OrderItemDto updatedOrderItemDto = OrderItemDto.convertToDto(updatedOrderItemEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.debug("Successfully edited the order item with id {}, with info {}", orderItemId, updatedOrderItemDto);
         return ResponseEntity.ok(updatedOrderItemDto);
     }
 
@@ -188,26 +184,23 @@ public class OrderController {
     public ResponseEntity<Object> deleteOrderItem(@PathVariable Long orderId,
                                                   @PathVariable Long orderItemId,
                                                   Authentication authentication) {
-        final String METHOD_NAME = "deleteOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Deleting order item with id {}, inside order with id {}", orderItemId, orderId);
-        OrderEntity orderEntity = orderService.getOrderById(orderId);
-        isOrderOwnedByUser(orderEntity, authentication);
+        isOrderOwnedByUser(orderId, authentication);
 
         orderItemService.deleteOrderItem(orderItemId);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully deleted order item with id {}, inside order with id {}", orderItemId, orderId);
         return ResponseEntity.ok().build();
     }
 
-    private void isOrderOwnedByUser(OrderEntity orderEntity, Authentication authentication) {
-        final String METHOD_NAME = "isOrderOwnedByUser";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Checking if order with id {} is owned by authentication {}", orderEntity.getId(), authentication);
+    // Only reads the username of the owner of the order, the order itself is not loaded
+    private void isOrderOwnedByUser(Long orderId, Authentication authentication) {
+        isOrderOwnedByUser(orderId, orderService.getOrderOwnerUsername(orderId), authentication);
+    }
+
+    private void isOrderOwnedByUser(Long orderId, String ownerUsername, Authentication authentication) {
         XUserDetails userDetails = (XUserDetails) authentication.getPrincipal();
         String username = userDetails.getUsername();
-        if(!orderEntity.getUser().getUsername().equals(username)) throw new ApiException("You can only update order item of your own", HttpStatus.FORBIDDEN);
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.info("Order with id {} is owned by authentication with username {}", orderEntity.getId(), username);
+        if(!ownerUsername.equals(username)) throw new ApiException("You can only update order item of your own", HttpStatus.FORBIDDEN);
+        log.debug("Order with id {} is owned by authentication with username {}", orderId, username);
     }
 }
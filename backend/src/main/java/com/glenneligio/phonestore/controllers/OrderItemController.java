@@ -17,9 +17,6 @@ import java.util.List;
 @RequestMapping("/api/v1/order-items")
 @Slf4j
 public class OrderItemController {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
-    public static final String SERVICE_RESPONSE = "Service response: {}";
 
     private OrderItemService orderItemService;
 
@@ -30,34 +27,23 @@ public class OrderItemController {
 
     @GetMapping
     public ResponseEntity<List<OrderItemDto>> getAllOrderItems() {
-        final String METHOD_NAME = "getAllOrderItems";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<OrderItemDto> orderItemDtoList = orderItemService.getAllOrderItems().stream().map(OrderItemDto::convertToDto).toList();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return ResponseEntity.ok(orderItemDtoList);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<OrderItemDto> getOrderItem(@PathVariable Long id) {
-        final String METHOD_NAME = "getOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         OrderItemEntity entity = orderItemService.getOrderItemById(id);
         OrderItemDto orderItemDto = OrderItemDto.convertToDto(entity);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return ResponseEntity.ok(orderItemDto);
     }
 
     @PostMapping
     public ResponseEntity<OrderItemDto> createOrderItem(@RequestBody @Valid OrderItemDto orderItemDto) {
-        final String METHOD_NAME = "createOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Created an order item with info {}", orderItemDto);
         OrderItemEntity orderItemEntityInput = OrderItemDto.convertToEntity(orderItemDto);
         OrderItemEntity orderItemCreated = orderItemService.createOrderItem(orderItemEntityInput);
         OrderItemDto orderItemDtoCreated = OrderItemDto.convertToDto(orderItemCreated);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully created order item");
-        log.debug(SERVICE_RESPONSE, orderItemDtoCreated);
         return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(orderItemCreated.getId())
@@ -67,27 +53,19 @@ public class OrderItemController {
     @PutMapping("/{id}")
     public ResponseEntity<OrderItemDto> updateOrderItem(@PathVariable Long id,
                                                         @RequestBody @Valid OrderItemDto orderItemDto) {
-        final String METHOD_NAME = "updateOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Updated order item with id {} and info {}", id, orderItemDto);
 
         OrderItemEntity orderItemEntityInput = OrderItemDto.convertToEntity(orderItemDto);
         OrderItemEntity orderItemEntityUpdated = orderItemService.updateOrderItem(id, orderItemEntityInput);
         OrderItemDto orderItemDtoCreated = OrderItemDto.convertToDto(orderItemEntityUpdated);
 
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully updated order item");
-        log.debug(SERVICE_RESPONSE, orderItemDtoCreated);
         return ResponseEntity.ok(orderItemDtoCreated);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteOrderItem(@PathVariable Long id) {
-        final String METHOD_NAME = "deleteOrderItem";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Deleting order item with id {id}");
         orderItemService.deleteOrderItem(id);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully deleted order item with id {}", id);
         return ResponseEntity.ok().build();
     }
@@ -1,7 +1,10 @@
 package com.glenneligio.phonestore.controllers;
 
 import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
 import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.service.CatalogService;
 import com.glenneligio.phonestore.service.PhoneService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -16,64 +19,62 @@ import java.util.List;
 @RequestMapping("/api/v1/phones")
 @Slf4j
 public class PhoneController {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
-    public static final String SERVICE_RESPONSE = "Service response: {}";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     private final PhoneService service;
+    private final CatalogService catalogService;
 
     @Autowired
-    public PhoneController(PhoneService service) {
+    public PhoneController(PhoneService service, CatalogService catalogService) {
         this.service = service;
+        this.catalogService = catalogService;
     }
 
     @GetMapping
-    public ResponseEntity<List<PhoneDto>> getAllPhones(@RequestParam(name = "brand", required = false) String brandName) {
-        final String METHOD_NAME = "getAllPhones";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        List<PhoneDto> phoneDtos = null;
-        if(brandName != null && !brandName.isBlank()) {
-            log.debug("Fetching all phones with brand name {}", brandName);
-            phoneDtos = service.getPhonesByBrandName(brandName).stream().map(PhoneDto::convertToDto).toList();
+    public ResponseEntity<List<PhoneDto>> getAllPhones(@RequestParam(name = "brand", required = false) String brandName,
+                                                       @RequestParam(name = "minPrice", required = false) Double minPrice,
+                                                       @RequestParam(name = "maxPrice", required = false) Double maxPrice,
+                                                       @RequestParam(name = "sort", defaultValue = "id") String sort,
+                                                       @RequestParam(name = "direction", defaultValue = "asc") String direction,
+                                                       @RequestParam(name = "limit", defaultValue = "" + PhonePageRequest.DEFAULT_PAGE_SIZE) Integer limit,
+                                                       @RequestParam(name = "cursor", required = false) String cursor) {
+        log.debug("Fetching phones with brand name {}, price from {} to {}, sorted by {} {}, limit {} and cursor {}",
+                brandName, minPrice, maxPrice, sort, direction, limit, cursor);
+        PhonePageRequest pageRequest = PhonePageRequest.of(brandName, minPrice, maxPrice, sort, direction, limit, cursor);
+        PhonePage<PhoneDto> phonePage;
+        if(catalogService.isEnabled()) {
+            phonePage = catalogService.getPhonePage(pageRequest);
         } else {
-            log.debug("Fetching all phones");
-            phoneDtos = service.getAllPhones().stream().map(PhoneDto::convertToDto).toList();
-
+            PhonePage<PhoneEntity> entityPage = service.getPhonePage(pageRequest);
+            phonePage = new PhonePage<>(entityPage.getPhones().stream().map(PhoneDto::convertToDto).toList(), entityPage.getNextCursor());
         }
+        List<PhoneDto> phoneDtos = phonePage.getPhones();
 
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.debug("Successfully fetched all phones. Count: {}", phoneDtos.size());
-        return ResponseEntity.ok(phoneDtos);
+        // The cursor of the next page is sent in a header so the response body stays a list of phones
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(phonePage.getNextCursor() != null) response.header(NEXT_CURSOR_HEADER, phonePage.getNextCursor().encode());
+        log.debug("Successfully fetched phones. Count: {}", phoneDtos.size());
+        return response.body(phoneDtos);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PhoneDto> getPhoneById(@PathVariable("id") Long id) {
-        final String METHOD_NAME = "getPhoneById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Fetching phone with id {}", id);
 
         PhoneEntity entity = service.getPhoneById(id);
         PhoneDto phoneDto = PhoneDto.convertToDto(entity);
 
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully fetch phone with id {}", id);
-        log.debug(SERVICE_RESPONSE, phoneDto);
         return ResponseEntity.ok(phoneDto);
     }
 
     @PostMapping
     public ResponseEntity<PhoneDto> createPhone(@RequestBody @Valid PhoneDto phoneDto) {
-        final String METHOD_NAME = "createPhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.debug("Creating new phone with info {}", phoneDto);
-
         PhoneEntity phoneEntityInput = PhoneDto.convertToEntity(phoneDto);
         PhoneEntity phoneEntityCreated = service.createPhone(phoneEntityInput);
 
         PhoneDto phoneDtoCreated = PhoneDto.convertToDto(phoneEntityCreated);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully create a new phone");
-        log.debug(SERVICE_RESPONSE, phoneDtoCreated);
         return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
                 .path("/{id}")
                 .buildAndExpand(phoneEntityCreated.getId())
@@ -83,27 +84,19 @@ public class PhoneController {
     @PutMapping("/{id}")
     public ResponseEntity<PhoneDto> updatePhone(@RequestBody @Valid PhoneDto phoneDto,
                                                 @PathVariable("id") Long id) {
-        final String METHOD_NAME = "updatePhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        log.info("Updating phone with id {}, and info {}", id, phoneDto);
 
         PhoneEntity phoneEntityInput = PhoneDto.convertToEntity(phoneDto);
         PhoneEntity phoneEntityUpdated = service.updatePhone(id, phoneEntityInput);
         PhoneDto phoneDtoUpdated = PhoneDto.convertToDto(phoneEntityUpdated);
 
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully updated phone with id {}", id);
-        log.debug(SERVICE_RESPONSE, phoneDtoUpdated);
         return ResponseEntity.ok(phoneDtoUpdated);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deletePhone(@PathVariable("id") Long id) {
-        final String METHOD_NAME = "deletePhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         log.debug("Deleting phone with id {}", id);
         service.deletePhone(id);
-        log.info(EXITING_METHOD, METHOD_NAME);
         log.debug("Successfully deleted phone with id {}", id);
         return ResponseEntity.ok().build();
     }
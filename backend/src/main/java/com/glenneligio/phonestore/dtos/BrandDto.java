@@ -6,7 +6,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.Length;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 
@@ -22,18 +21,22 @@ public class BrandDto {
     private LocalDateTime updatedAt;
 
     public static BrandDto convertToDto(BrandEntity brandEntity) {
+        if(brandEntity == null) return null;
         BrandDto dto = new BrandDto();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(brandEntity, dto);
+        dto.setId(brandEntity.getId());
+        dto.setName(brandEntity.getName());
+        dto.setCreatedAt(brandEntity.getCreatedAt());
+        dto.setUpdatedAt(brandEntity.getUpdatedAt());
         return dto;
     }
 
     public static BrandEntity convertToEntity(BrandDto dto) {
+        if(dto == null) return null;
         BrandEntity entity = new BrandEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, entity);
+        entity.setId(dto.getId());
+        entity.setName(dto.getName());
+        entity.setCreatedAt(dto.getCreatedAt());
+        entity.setUpdatedAt(dto.getUpdatedAt());
         return entity;
     }
 }
@@ -8,7 +8,6 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,10 +23,6 @@ public class CreateOrderDto {
 
     public static OrderEntity convertToEntity(CreateOrderDto dto) {
         OrderEntity orderEntity = new OrderEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, orderEntity);
-
         List<OrderItemEntity> orderItemEntities = dto.getOrderItems().stream().map(OrderItemDto::convertToEntity).toList();
         orderEntity.setOrderItems(orderItemEntities);
 
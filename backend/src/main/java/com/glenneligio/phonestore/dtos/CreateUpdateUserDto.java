@@ -9,7 +9,6 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 
@@ -37,9 +36,14 @@ public class CreateUpdateUserDto {
 
     public static UserEntity convertToEntity(CreateUpdateUserDto dto) {
         UserEntity entity = new UserEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, entity);
+        entity.setId(dto.getId());
+        entity.setUsername(dto.getUsername());
+        entity.setPassword(dto.getPassword());
+        entity.setEmail(dto.getEmail());
+        entity.setCreatedAt(dto.getCreatedAt());
+        entity.setUpdatedAt(dto.getUpdatedAt());
+        entity.setFullName(dto.getFullName());
+        entity.setIsActive(dto.getIsActive());
 
         entity.setUserType(UserType.getAccountType(dto.getUserType()));
         return entity;
@@ -10,7 +10,6 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,9 +30,9 @@ public class OrderDto {
 
     public static OrderDto convertToDto(OrderEntity entity) {
         OrderDto orderDto = new OrderDto();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(entity, orderDto);
+        orderDto.setId(entity.getId());
+        orderDto.setCreatedAt(entity.getCreatedAt());
+        orderDto.setUpdatedAt(entity.getUpdatedAt());
 
         List<OrderItemDto> orderItemDtos = entity.getOrderItems().stream().map(OrderItemDto::convertToDto).toList();
         orderDto.setOrderItems(orderItemDtos);
@@ -44,9 +43,9 @@ public class OrderDto {
 
     public static OrderEntity convertToEntity(OrderDto dto) {
         OrderEntity orderEntity = new OrderEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, orderEntity);
+        orderEntity.setId(dto.getId());
+        orderEntity.setCreatedAt(dto.getCreatedAt());
+        orderEntity.setUpdatedAt(dto.getUpdatedAt());
 
         List<OrderItemEntity> orderItemEntities = dto.getOrderItems().stream().map(OrderItemDto::convertToEntity).toList();
         orderEntity.setOrderItems(orderItemEntities);
@@ -13,7 +13,6 @@ import lombok.NoArgsConstructor;
 import org.aspectj.weaver.ast.Or;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDateTime;
@@ -33,9 +32,10 @@ public class OrderItemDto {
 
     public static OrderItemEntity convertToEntity(OrderItemDto dto) {
         OrderItemEntity orderItemEntity = new OrderItemEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, orderItemEntity);
+        orderItemEntity.setId(dto.getId());
+        orderItemEntity.setQuantity(dto.getQuantity());
+        orderItemEntity.setCreatedAt(dto.getCreatedAt());
+        orderItemEntity.setUpdatedAt(dto.getUpdatedAt());
 
         PhoneEntity phoneEntity = PhoneDto.convertToEntity(dto.getPhone());
         orderItemEntity.setPhone(phoneEntity);
@@ -44,9 +44,10 @@ public class OrderItemDto {
 
     public static OrderItemDto convertToDto(OrderItemEntity entity) {
         OrderItemDto orderItemDto = new OrderItemDto();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(entity, orderItemDto);
+        orderItemDto.setId(entity.getId());
+        orderItemDto.setQuantity(entity.getQuantity());
+        orderItemDto.setCreatedAt(entity.getCreatedAt());
+        orderItemDto.setUpdatedAt(entity.getUpdatedAt());
 
         PhoneDto phoneDto = PhoneDto.convertToDto(entity.getPhone());
         orderItemDto.setPhone(phoneDto);
@@ -0,0 +1,30 @@
+package com.glenneligio.phonestore.dtos;
+
+import com.glenneligio.phonestore.entity.OrderItemEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Compact order item for placing orders, only the id of the phone is sent instead of the whole phone
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLineDto {
+    @NotNull(message = "Phone id must be present")
+    private Long phoneId;
+    @NotNull(message = "Quantity must be present")
+    @Positive(message = "Quantity must be a positive number")
+    private Long quantity;
+
+    public static OrderItemEntity convertToEntity(OrderLineDto dto) {
+        OrderItemEntity orderItemEntity = new OrderItemEntity();
+        PhoneEntity phoneEntity = new PhoneEntity();
+        phoneEntity.setId(dto.getPhoneId());
+        orderItemEntity.setPhone(phoneEntity);
+        orderItemEntity.setQuantity(dto.getQuantity());
+        return orderItemEntity;
+    }
+}
@@ -0,0 +1,38 @@
+package com.glenneligio.phonestore.dtos;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.validator.constraints.Length;
+
+// Fields of a user that can be changed partially, a field that is not given is left unchanged
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatchUserDto {
+    @Length(min = 1, message = "Password can't be blank")
+    @ToString.Exclude
+    private String password;
+    @Email(message = "Email must be a valid one")
+    private String email;
+    @Length(min = 1, message = "Full name can't be blank")
+    private String fullName;
+    private Boolean isActive;
+    @Pattern(regexp = "(CUSTOMER|ADMIN)", message = "User can only be of type CUSTOMER or ADMIN")
+    private String userType;
+
+    public static UserEntity convertToEntity(PatchUserDto dto) {
+        UserEntity entity = new UserEntity();
+        entity.setPassword(dto.getPassword());
+        entity.setEmail(dto.getEmail());
+        entity.setFullName(dto.getFullName());
+        entity.setIsActive(dto.getIsActive());
+        if(dto.getUserType() != null) entity.setUserType(UserType.getAccountType(dto.getUserType()));
+        return entity;
+    }
+}
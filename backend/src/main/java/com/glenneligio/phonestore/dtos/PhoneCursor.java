@@ -0,0 +1,79 @@
+package com.glenneligio.phonestore.dtos;
+
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.enums.PhoneSortKey;
+import com.glenneligio.phonestore.exception.ApiException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+
+// Position of the last phone of a page, encoded as an opaque string for the clients. A phone without
+// a value for the sort key has a null value, encoded as an empty value.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PhoneCursor {
+    private static final String SEPARATOR = "|";
+
+    private PhoneSortKey sortKey;
+    private String value;
+    private Long id;
+
+    public Double getValueAsDouble() {
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    public LocalDateTime getValueAsDateTime() {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    public static PhoneCursor of(PhoneEntity entity, PhoneSortKey sortKey) {
+        Object value = switch (sortKey) {
+            case ID -> entity.getId();
+            case PRICE -> entity.getPrice();
+            case EFFECTIVE_PRICE -> entity.getEffectivePrice();
+            case UPDATED_AT -> entity.getUpdatedAt();
+        };
+        return new PhoneCursor(sortKey, value == null ? null : String.valueOf(value), entity.getId());
+    }
+
+    public static PhoneCursor of(PhoneDto dto, PhoneSortKey sortKey) {
+        Object value = switch (sortKey) {
+            case ID -> dto.getId();
+            case PRICE -> dto.getPrice();
+            case EFFECTIVE_PRICE -> dto.getEffectivePrice();
+            case UPDATED_AT -> dto.getUpdatedAt();
+        };
+        return new PhoneCursor(sortKey, value == null ? null : String.valueOf(value), dto.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.getType() + SEPARATOR + (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PhoneCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if(parts.length != 3) throw new IllegalArgumentException("Cursor must have 3 parts");
+            String value = parts[1].isEmpty() ? null : parts[1];
+            PhoneCursor cursor = new PhoneCursor(PhoneSortKey.getPhoneSortKey(parts[0]), value, Long.valueOf(parts[2]));
+            // Parse the value once so that a malformed cursor fails here and not in the query, the id is never null
+            switch (cursor.getSortKey()) {
+                case PRICE, EFFECTIVE_PRICE -> cursor.getValueAsDouble();
+                case UPDATED_AT -> cursor.getValueAsDateTime();
+                default -> Long.valueOf(Objects.requireNonNull(cursor.getValue()));
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new ApiException("Cursor is not valid", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
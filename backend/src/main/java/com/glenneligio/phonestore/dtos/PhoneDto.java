@@ -8,7 +8,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.Length;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 
@@ -19,7 +18,7 @@ public class PhoneDto {
     private Long id;
     @Positive(message = "Price must be a positive number")
     private Double price;
-    @Positive(message = "Quantity must be a positive number")
+    @PositiveOrZero(message = "Quantity must not be negative")
     private Long quantity;
     @NotBlank(message = "Description must be present")
     @Length(message = "Brand name can only have 64 characters", max = 256)
@@ -29,6 +28,7 @@ public class PhoneDto {
     @Max(message = "Discount can only have a max value of 1 for 100% discount", value = 1)
     @Min(message = "Discount can only have a min value of 0 for 0% discount", value = 0)
     private Double discount;
+    private Double effectivePrice;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     @Valid
@@ -36,10 +36,17 @@ public class PhoneDto {
     private BrandDto brand;
 
     public static PhoneDto convertToDto(PhoneEntity entity) {
+        if(entity == null) return null;
         PhoneDto dto = new PhoneDto();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(entity, dto);
+        dto.setId(entity.getId());
+        dto.setPrice(entity.getPrice());
+        dto.setQuantity(entity.getQuantity());
+        dto.setDescription(entity.getDescription());
+        dto.setSpecification(entity.getSpecification());
+        dto.setDiscount(entity.getDiscount());
+        dto.setEffectivePrice(entity.getEffectivePrice());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setUpdatedAt(entity.getUpdatedAt());
 
         BrandDto brandDto = BrandDto.convertToDto(entity.getBrand());
         dto.setBrand(brandDto);
@@ -47,10 +54,17 @@ public class PhoneDto {
     }
 
     public static PhoneEntity convertToEntity(PhoneDto dto) {
+        if(dto == null) return null;
         PhoneEntity entity = new PhoneEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, entity);
+        entity.setId(dto.getId());
+        entity.setPrice(dto.getPrice());
+        entity.setQuantity(dto.getQuantity());
+        entity.setDescription(dto.getDescription());
+        entity.setSpecification(dto.getSpecification());
+        entity.setDiscount(dto.getDiscount());
+        // the effective price is derived from the price and discount by the entity, never taken from the client
+        entity.setCreatedAt(dto.getCreatedAt());
+        entity.setUpdatedAt(dto.getUpdatedAt());
 
         BrandEntity brandEntity = BrandDto.convertToEntity(dto.getBrand());
         entity.setBrand(brandEntity);
@@ -0,0 +1,16 @@
+package com.glenneligio.phonestore.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PhonePage<T> {
+    private List<T> phones;
+    // null when there are no more phones after this page
+    private PhoneCursor nextCursor;
+}
@@ -0,0 +1,57 @@
+package com.glenneligio.phonestore.dtos;
+
+import com.glenneligio.phonestore.enums.PhoneSortKey;
+import com.glenneligio.phonestore.exception.ApiException;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PhonePageRequest {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private String brandName;
+    private Double minPrice;
+    private Double maxPrice;
+    private PhoneSortKey sortKey;
+    private boolean ascending;
+    private PhoneCursor cursor;
+    private int limit;
+
+    public static PhonePageRequest of(String brandName, String sort, String direction, Integer limit, String cursor) {
+        return of(brandName, null, null, sort, direction, limit, cursor);
+    }
+
+    public static PhonePageRequest of(String brandName, Double minPrice, Double maxPrice, String sort, String direction, Integer limit, String cursor) {
+        PhoneSortKey sortKey;
+        try {
+            sortKey = PhoneSortKey.getPhoneSortKey(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Phones can only be sorted by id, price, effectivePrice or updatedAt", HttpStatus.BAD_REQUEST);
+        }
+        if(!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) throw new ApiException("Sort direction can only be asc or desc", HttpStatus.BAD_REQUEST);
+        if(minPrice != null && maxPrice != null && minPrice > maxPrice) throw new ApiException("Min price can not be greater than max price", HttpStatus.BAD_REQUEST);
+        if(limit < 1 || limit > MAX_PAGE_SIZE) throw new ApiException("Limit must be between 1 and " + MAX_PAGE_SIZE, HttpStatus.BAD_REQUEST);
+
+        PhoneCursor phoneCursor = null;
+        if(cursor != null && !cursor.isBlank()) {
+            phoneCursor = PhoneCursor.decode(cursor);
+            if(phoneCursor.getSortKey() != sortKey) throw new ApiException("Cursor was created for a different sort", HttpStatus.BAD_REQUEST);
+        }
+        return PhonePageRequest.builder()
+                .brandName(brandName != null && !brandName.isBlank() ? brandName : null)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .sortKey(sortKey)
+                .ascending(direction.equalsIgnoreCase("asc"))
+                .cursor(phoneCursor)
+                .limit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.glenneligio.phonestore.dtos;
+
+import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.entity.OrderItemEntity;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Compact version of CreateOrderDto, each line only has the phone id and the quantity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlaceOrderDto {
+    @Valid
+    @NotNull(message = "Order lines must not be null")
+    @NotEmpty(message = "Order lines must not be empty")
+    private List<OrderLineDto> lines;
+
+    public static OrderEntity convertToEntity(PlaceOrderDto dto) {
+        OrderEntity orderEntity = new OrderEntity();
+        List<OrderItemEntity> orderItemEntities = dto.getLines().stream().map(OrderLineDto::convertToEntity).toList();
+        orderEntity.setOrderItems(orderItemEntities);
+        return orderEntity;
+    }
+}
@@ -10,7 +10,6 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,10 +27,6 @@ public class UpdateOrderDto {
 
     public static OrderEntity convertToEntity(UpdateOrderDto dto) {
         OrderEntity orderEntity = new OrderEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, orderEntity);
-
         List<OrderItemEntity> orderItemEntities = dto.getOrderItems().stream().map(OrderItemDto::convertToEntity).toList();
         orderEntity.setOrderItems(orderItemEntities);
 
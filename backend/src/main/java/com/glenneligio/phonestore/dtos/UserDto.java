@@ -10,7 +10,6 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.catalina.User;
-import org.modelmapper.ModelMapper;
 
 import java.time.LocalDateTime;
 
@@ -36,9 +35,13 @@ public class UserDto {
 
     public static UserDto convertToDto(UserEntity entity) {
         UserDto dto = new UserDto();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(entity, dto);
+        dto.setId(entity.getId());
+        dto.setUsername(entity.getUsername());
+        dto.setEmail(entity.getEmail());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setUpdatedAt(entity.getUpdatedAt());
+        dto.setFullName(entity.getFullName());
+        dto.setIsActive(entity.getIsActive());
 
         dto.setUserType(entity.getUserType().getType());
         return dto;
@@ -46,9 +49,13 @@ public class UserDto {
 
     public static UserEntity convertToEntity(UserDto dto) {
         UserEntity entity = new UserEntity();
-        ModelMapper mapper = new ModelMapper();
-        mapper.getConfiguration().setSkipNullEnabled(true);
-        mapper.map(dto, entity);
+        entity.setId(dto.getId());
+        entity.setUsername(dto.getUsername());
+        entity.setEmail(dto.getEmail());
+        entity.setCreatedAt(dto.getCreatedAt());
+        entity.setUpdatedAt(dto.getUpdatedAt());
+        entity.setFullName(dto.getFullName());
+        entity.setIsActive(dto.getIsActive());
 
         entity.setUserType(UserType.getAccountType(dto.getUserType()));
         return entity;
@@ -24,6 +24,14 @@ public class XUserDetails implements UserDetails {
         this.isActive = userEntity.getIsActive();
     }
 
+    // Principal built from the claims of a verified token, it has no password
+    public XUserDetails(String username, String type, Boolean isActive) {
+        this.username = username;
+        this.password = null;
+        this.types = new String[]{type};
+        this.isActive = isActive;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Arrays.stream(types).map(SimpleGrantedAuthority::new).toList();
@@ -5,8 +5,14 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -17,11 +23,15 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity(name = "brands")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "brands")
+@NaturalIdCache(region = "brands-natural-id")
 public class BrandEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "brands_seq")
+    @SequenceGenerator(name = "brands_seq", sequenceName = "brands_seq", allocationSize = 50)
     @Column(name = "brand_id")
     private Long id;
+    @NaturalId(mutable = true)
     @Column(name = "brand_name", unique = true)
     @NotBlank(message = "Brand name must be present")
     private String name;
@@ -31,6 +41,8 @@ public class BrandEntity {
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "brand", targetEntity = PhoneEntity.class)
     private List<PhoneEntity> phoneList;
 }
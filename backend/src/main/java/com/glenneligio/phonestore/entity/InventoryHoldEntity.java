@@ -0,0 +1,43 @@
+package com.glenneligio.phonestore.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// The stock a pending order holds until expiresAt, see InventoryHoldService
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity(name = "inventory_holds")
+@Table(indexes = {
+        @Index(name = "idx_inventory_holds_expires_at", columnList = "expires_at, hold_id")
+})
+public class InventoryHoldEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_holds_seq")
+    @SequenceGenerator(name = "inventory_holds_seq", sequenceName = "inventory_holds_seq", allocationSize = 50)
+    @Column(name = "hold_id")
+    private Long id;
+    @OneToOne(fetch = FetchType.LAZY, targetEntity = OrderEntity.class, optional = false)
+    @JoinColumn(name = "order_id", referencedColumnName = "order_id", nullable = false, unique = true)
+    @NotNull(message = "Order must be present")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private OrderEntity order;
+    @Column(name = "expires_at", nullable = false)
+    @NotNull(message = "Expiry must be present")
+    private LocalDateTime expiresAt;
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -18,10 +18,15 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity(name = "orders")
+@Table(indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class OrderEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long id;
     @CreationTimestamp
@@ -34,14 +39,14 @@ public class OrderEntity {
     @Column(name = "order_status")
     @NotNull(message = "Order status must be present")
     private OrderStatus status;
-    @OneToMany(fetch = FetchType.EAGER,
+    @OneToMany(fetch = FetchType.LAZY,
             targetEntity = OrderItemEntity.class,
             cascade = {CascadeType.ALL},
             orphanRemoval = true,
             mappedBy = "order")
     @NotNull(message = "Order items must be present")
     private List<OrderItemEntity> orderItems;
-    @ManyToOne(targetEntity = UserEntity.class, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, targetEntity = UserEntity.class, optional = false)
     @JoinColumn(name = "user_id", referencedColumnName = "user_id", nullable = false)
     @NotNull(message = "User must be present")
     private UserEntity user;
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.validator.constraints.Length;
@@ -17,16 +19,25 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity(name = "phones")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "phones")
+@Table(indexes = {
+        @Index(name = "idx_phones_price", columnList = "price, phone_id"),
+        @Index(name = "idx_phones_effective_price", columnList = "effective_price, phone_id"),
+        @Index(name = "idx_phones_updated_at", columnList = "updated_at, phone_id"),
+        @Index(name = "idx_phones_brand_id", columnList = "brand_id, phone_id")
+})
 public class PhoneEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phones_seq")
+    @SequenceGenerator(name = "phones_seq", sequenceName = "phones_seq", allocationSize = 50)
     @Column(name = "phone_id")
     private Long id;
     @Column(name = "price")
     @Positive(message = "Price must be a positive number")
     private Double price;
     @Column(name = "quantity")
-    @Positive(message = "Quantity must be a positive number")
+    // a sold out phone has no stock left
+    @PositiveOrZero(message = "Quantity must not be negative")
     private Long quantity;
     @Column(name = "description")
     @Length(message = "Description can only have up to 256 characters")
@@ -38,14 +49,24 @@ public class PhoneEntity {
     @Max(message = "Discount can only have a max value of 1 for 100% discount", value = 1)
     @Min(message = "Discount can only have a min value of 0 for 0% discount", value = 0)
     private Double discount;
+    // price with the discount applied, stored so that phones can be sorted and paged by it
+    @Column(name = "effective_price")
+    private Double effectivePrice;
     @CreationTimestamp
     @Column(name="created_at")
     private LocalDateTime createdAt;
     @UpdateTimestamp
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
-    @ManyToOne(fetch = FetchType.EAGER, targetEntity = BrandEntity.class)
-    @JoinColumn(name = "brand_name", referencedColumnName = "brand_name")
+    @ManyToOne(fetch = FetchType.LAZY, targetEntity = BrandEntity.class)
+    @JoinColumn(name = "brand_id")
     @NotNull(message = "Brand must be present")
     private BrandEntity brand;
+
+    @PrePersist
+    @PreUpdate
+    void computeEffectivePrice() {
+        if(price == null) return;
+        effectivePrice = price * (1 - (discount == null ? 0 : discount));
+    }
 }
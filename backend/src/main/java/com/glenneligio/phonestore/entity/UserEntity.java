@@ -8,8 +8,15 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -20,11 +27,16 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity(name = "users")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-natural-id")
 public class UserEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "user_id")
     private Long id;
+    @NaturalId
     @Column(name = "username", unique = true)
     @NotBlank(message = "Username must be present")
     private String username;
@@ -51,6 +63,11 @@ public class UserEntity {
     @Column(name = "user_type")
     @NotNull(message = "User type must be present")
     private UserType userType;
-@OneToMany(targetEntity = OrderEntity.class, mappedBy = "user")
+    // Epoch millis up to which the tokens of the user are rejected, see TokenRevocationList
+    @Column(name = "tokens_revoked_at")
+    private Long tokensRevokedAt;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(targetEntity = OrderEntity.class, mappedBy = "user")
     private List<OrderEntity> orderList;
 }
@@ -4,7 +4,11 @@ import java.util.stream.Stream;
 
 public enum OrderStatus {
     PENDING("PENDING"),
-    COMPLETED("COMPLETED");
+    COMPLETED("COMPLETED"),
+    // the inventory hold of the pending order ran out and its stock was given back
+    EXPIRED("EXPIRED"),
+    // the pending order was deleted and its stock was given back
+    CANCELLED("CANCELLED");
 
     private final String type;
 
@@ -0,0 +1,27 @@
+package com.glenneligio.phonestore.enums;
+
+import java.util.stream.Stream;
+
+public enum PhoneSortKey {
+    ID("id"),
+    PRICE("price"),
+    EFFECTIVE_PRICE("effectivePrice"),
+    UPDATED_AT("updatedAt");
+
+    private final String type;
+
+    PhoneSortKey(String type) {
+        this.type = type;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public static PhoneSortKey getPhoneSortKey(String typeString) {
+        return Stream.of(PhoneSortKey.values())
+                .filter(type -> typeString.equals(type.getType()))
+                .findFirst()
+                .orElseThrow(IllegalArgumentException::new);
+    }
+}
@@ -0,0 +1,10 @@
+package com.glenneligio.phonestore.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PhoneDeletedEvent {
+    private Long phoneId;
+}
@@ -0,0 +1,11 @@
+package com.glenneligio.phonestore.events;
+
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PhoneSavedEvent {
+    private PhoneEntity phone;
+}
@@ -0,0 +1,13 @@
+package com.glenneligio.phonestore.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class PhoneStockChangedEvent {
+    // negative for reserved stock, positive for released stock
+    private Map<Long, Long> quantityChangeByPhoneId;
+}
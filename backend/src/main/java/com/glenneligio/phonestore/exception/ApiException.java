@@ -1,16 +1,17 @@
 package com.glenneligio.phonestore.exception;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
 
+// Expected business error, answered with its status and message. It is thrown for routine cases like a
+// missing phone or not enough stock, so it has no stack trace and no suppressed exceptions, which makes
+// creating it about as cheap as creating its message.
 @Data
-@AllArgsConstructor
 public class ApiException extends RuntimeException {
     private final HttpStatus code;
 
     public ApiException(String message, HttpStatus code) {
-        super(message);
+        super(message, null, false, false);
         this.code = code;
     }
 }
@@ -1,11 +1,16 @@
 package com.glenneligio.phonestore.filters;
+import com.glenneligio.phonestore.dtos.XUserDetails;
+import com.glenneligio.phonestore.service.TokenRevocationList;
+import com.glenneligio.phonestore.service.UserDetailsCache;
 import com.glenneligio.phonestore.util.JwtUtil;
+import com.glenneligio.phonestore.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,14 +26,23 @@ import java.util.regex.Pattern;
 @Component
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
+    private static final Pattern LOGIN_OR_REGISTER_URI = Pattern.compile("/api/v.*/users/(login|register)");
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService service;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final boolean statelessTokens;
 
     @Autowired
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService service) {
+    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsService service, UserDetailsCache userDetailsCache,
+                         TokenRevocationList tokenRevocationList,
+                         @Value("${phone-store.security.stateless-tokens:false}") boolean statelessTokens) {
         this.jwtUtil = jwtUtil;
         this.service = service;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.statelessTokens = statelessTokens;
     }
 
     @Override
@@ -36,12 +50,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String requestUri = request.getRequestURI();
         final String requestMethod = request.getMethod();
 
-        log.info("{} {}", requestMethod, requestUri);
+        log.debug("{} {}", requestMethod, requestUri);
 
-        Pattern patPackageDescription = Pattern.compile("/api/v.*/users/(login|register)");
-        Matcher matPackageDescription = patPackageDescription.matcher(requestUri);
+        Matcher matPackageDescription = LOGIN_OR_REGISTER_URI.matcher(requestUri);
         if(matPackageDescription.find()) {
-            log.info("Login and register request, will not be processed");
+            log.debug("Login and register request, will not be processed");
             filterChain.doFilter(request, response);
             return;
         }
@@ -49,20 +62,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String authorization = request.getHeader("Authorization");
 
         String jwt = null;
+        VerifiedToken verifiedToken = null;
         String username = null;
 
         if(authorization != null && authorization.startsWith("Bearer ")) {
             jwt = authorization.substring(7);
-            username = jwtUtil.extractUsername(jwt);
+            verifiedToken = jwtUtil.verify(jwt);
+            username = verifiedToken.getSubject();
         }
-        log.info("Jwt {} with username {} is read", jwt, username);
+        log.debug("Jwt with username {} is read", username);
 
         if(username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            log.info("Looks for the account based on username found in jwt");
-            UserDetails userDetails = service.loadUserByUsername(username);
-            log.info("UserDetails created: {}", userDetails.toString());
-            if(jwtUtil.validateToken(jwt, userDetails)) {
-                log.info("Valid jwt {}, adding userDetails created in the Security Context", jwt);
+            UserDetails userDetails;
+            if(statelessTokens && verifiedToken.hasUserClaims()) {
+                log.debug("Builds the account from the claims of the jwt");
+                userDetails = new XUserDetails(username, verifiedToken.getUserType(), verifiedToken.getIsActive());
+            } else {
+                log.debug("Looks for the account based on username found in jwt");
+                userDetails = userDetailsCache.get(username, service::loadUserByUsername);
+            }
+            if(statelessTokens && tokenRevocationList.isRevoked(username, verifiedToken.getIssuedAt())) {
+                log.debug("Jwt of {} was revoked, request will not be authenticated", username);
+            } else if(jwtUtil.validateToken(verifiedToken, userDetails)) {
+                log.debug("Valid jwt of {}, adding userDetails created in the Security Context", username);
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(userDetails, userDetails.getPassword(), userDetails.getAuthorities());
                 usernamePasswordAuthenticationToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request));
@@ -2,9 +2,12 @@ package com.glenneligio.phonestore.handlers;
 
 import com.glenneligio.phonestore.dtos.ExceptionResponse;
 import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.util.StoreMetrics;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -20,33 +23,44 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestControllerAdvice
 @Slf4j
 public class PhoneStoreResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
-    // General Exception handler
+
+    private final StoreMetrics storeMetrics;
+    private final double errorLogSampleRate;
+
+    @Autowired
+    public PhoneStoreResponseEntityExceptionHandler(StoreMetrics storeMetrics,
+                                                    @Value("${phone-store.instrumentation.error-log-sample-rate:0.01}") double errorLogSampleRate) {
+        this.storeMetrics = storeMetrics;
+        this.errorLogSampleRate = errorLogSampleRate;
+    }
+
+    // General Exception handler, the only one that logs the stack trace
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ExceptionResponse> handleAllException (Exception ex, WebRequest request){
         ExceptionResponse response = new ExceptionResponse(List.of(ex.getMessage()),
                 LocalDateTime.now(),
                 request.getDescription(false));
-        log.error("General exception caught", ex);
-        log.debug("Service request: {}", request);
-        ex.printStackTrace();
+        storeMetrics.errorResponse(ex.getClass(), HttpStatus.INTERNAL_SERVER_ERROR);
+        log.error("General exception caught on {}", request.getDescription(false), ex);
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    // ApiException handler
+    // ApiException handler. These are expected errors, like not enough stock during a sale, so they are
+    // counted and only a sample of them is logged
     @ExceptionHandler(value = ApiException.class)
-    public ResponseEntity<ExceptionResponse> handleApiException (Exception ex, WebRequest request){
-        ApiException apiException = (ApiException) ex;
+    public ResponseEntity<ExceptionResponse> handleApiException (ApiException ex, WebRequest request){
+        String details = request.getDescription(false);
         ExceptionResponse response = new ExceptionResponse(List.of(ex.getMessage()),
                 LocalDateTime.now(),
-                request.getDescription(false));
-        log.error("Api Exception caught", ex);
-        log.error("Service request: {}", request);
-        ex.printStackTrace();
-        return new ResponseEntity<>(response, apiException.getCode());
+                details);
+        storeMetrics.errorResponse(ApiException.class, ex.getCode());
+        if(isSampled()) log.warn("Api exception caught on {} with status {}: {}", details, ex.getCode().value(), ex.getMessage());
+        return new ResponseEntity<>(response, ex.getCode());
     }
 
     // Handle validation errors, mostly in RequestBody
@@ -62,9 +76,8 @@ public class PhoneStoreResponseEntityExceptionHandler extends ResponseEntityExce
         ExceptionResponse response = new ExceptionResponse(errors,
                 LocalDateTime.now(),
                 request.getDescription(false));
-        log.error("Validation exception caught", ex);
-        log.debug("Request: {}", request);
-        ex.printStackTrace();
+        storeMetrics.errorResponse(MethodArgumentNotValidException.class, HttpStatus.BAD_REQUEST);
+        if(isSampled()) log.warn("Validation exception caught on {}: {}", response.getDetails(), errors);
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
@@ -79,9 +92,12 @@ public class PhoneStoreResponseEntityExceptionHandler extends ResponseEntityExce
         error.setDetails(request.getDescription(false));
         error.setErrors(errors);
         error.setTimestamp(LocalDateTime.now());
-        log.error("ConstraintViolation caught", e);
-        log.debug("Service request: {}", request);
-        e.printStackTrace();
+        storeMetrics.errorResponse(ConstraintViolationException.class, HttpStatus.BAD_REQUEST);
+        if(isSampled()) log.warn("ConstraintViolation caught on {}: {}", error.getDetails(), errors);
         return ResponseEntity.status(400).body(error);
     }
+
+    private boolean isSampled() {
+        return errorLogSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < errorLogSampleRate;
+    }
 }
@@ -1,11 +1,15 @@
 package com.glenneligio.phonestore.repository;
 
 import com.glenneligio.phonestore.entity.BrandEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface BrandRepository extends JpaRepository<BrandEntity, Long> {
+// findByName is in BrandRepositoryCustom, it loads the brand by its natural id
+public interface BrandRepository extends JpaRepository<BrandEntity, Long>, BrandRepositoryCustom {
 
-    Optional<BrandEntity> findByName(String name);
+    // Fetches the phones together with the brand, they are read after the session is closed
+    @EntityGraph(attributePaths = {"phoneList"})
+    Optional<BrandEntity> findWithPhoneListByName(String name);
 }
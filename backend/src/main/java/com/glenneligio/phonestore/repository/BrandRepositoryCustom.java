@@ -0,0 +1,11 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.entity.BrandEntity;
+
+import java.util.Optional;
+
+public interface BrandRepositoryCustom {
+
+    // Loads the brand by its natural id, so the natural id and second level caches are used
+    Optional<BrandEntity> findByName(String name);
+}
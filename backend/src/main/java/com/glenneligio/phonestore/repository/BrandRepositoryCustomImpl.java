@@ -0,0 +1,25 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.entity.BrandEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class BrandRepositoryCustomImpl implements BrandRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The session can only be unwrapped inside a transaction
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<BrandEntity> findByName(String name) {
+        if(name == null) return Optional.empty();
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(BrandEntity.class)
+                .loadOptional(name);
+    }
+}
@@ -0,0 +1,28 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.entity.InventoryHoldEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryHoldRepository extends JpaRepository<InventoryHoldEntity, Long> {
+
+    // Holds that are due, oldest first. A range read of idx_inventory_holds_expires_at, the holds that are
+    // not due yet are never read.
+    @Query("select h from inventory_holds h where h.expiresAt <= :now order by h.expiresAt, h.id")
+    List<InventoryHoldEntity> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Drops the hold of an order that was expired, completed or deleted
+    @Modifying
+    @Query("delete from inventory_holds h where h.id = :id")
+    int deleteHoldById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from inventory_holds h where h.order.id = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
@@ -1,7 +1,33 @@
 package com.glenneligio.phonestore.repository;
 
 import com.glenneligio.phonestore.entity.OrderItemEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface OrderItemRepository extends JpaRepository<OrderItemEntity, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"phone", "phone.brand"})
+    List<OrderItemEntity> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"phone", "phone.brand"})
+    Optional<OrderItemEntity> findById(Long id);
+
+    // Quantity per phone of the items of the orders, for giving back their stock. In phone id order, the
+    // order in which the phones are locked everywhere else.
+    @Query("select i.phone.id as phoneId, sum(i.quantity) as quantity from order_items i " +
+            "where i.order.id in :orderIds group by i.phone.id order by i.phone.id")
+    List<PhoneQuantity> sumQuantityByPhoneId(@Param("orderIds") Collection<Long> orderIds);
+
+    interface PhoneQuantity {
+        Long getPhoneId();
+        Long getQuantity();
+    }
 }
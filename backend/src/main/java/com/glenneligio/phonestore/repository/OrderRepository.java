@@ -1,11 +1,45 @@
 package com.glenneligio.phonestore.repository;
 
 import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
+// The associations of an order are lazy, each method fetches what its use case needs in one query
 public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
 
+    // Order list, the items with their phone and brand
+    @Override
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.phone", "orderItems.phone.brand"})
+    List<OrderEntity> findAll();
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.phone", "orderItems.phone.brand"})
     List<OrderEntity> findByUserUsername(String username);
+
+    // Order detail and item list, the items with their phone and brand, and the user
+    @EntityGraph(attributePaths = {"user", "orderItems", "orderItems.phone", "orderItems.phone.brand"})
+    Optional<OrderEntity> findWithItemsById(Long id);
+
+    // Ownership check, only reads the username of the owner
+    @Query("select o.user.username from orders o where o.id = :id")
+    Optional<String> findOwnerUsernameById(@Param("id") Long id);
+
+    // Reads the order and keeps its row locked until the end of the transaction, so that its status cannot
+    // change in between. An order is locked before its hold and its phones.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from orders o where o.id = :id")
+    Optional<OrderEntity> findForUpdateById(@Param("id") Long id);
+
+    // Moves the order to the next status only when it still has the expected one, returns 0 otherwise
+    @Modifying(flushAutomatically = true)
+    @Query("update orders o set o.status = :next, o.updatedAt = CURRENT_TIMESTAMP where o.id = :id and o.status = :expected")
+    int updateStatus(@Param("id") Long id, @Param("expected") OrderStatus expected, @Param("next") OrderStatus next);
 }
@@ -1,11 +1,65 @@
 package com.glenneligio.phonestore.repository;
 
 import com.glenneligio.phonestore.entity.PhoneEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface PhoneRepository extends JpaRepository<PhoneEntity, Long> {
+// The brand of a phone is lazy, the finders used by the endpoints fetch it in the same query
+public interface PhoneRepository extends JpaRepository<PhoneEntity, Long>, PhoneRepositoryCustom {
 
+    @Override
+    @EntityGraph(attributePaths = {"brand"})
+    List<PhoneEntity> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"brand"})
+    Optional<PhoneEntity> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"brand"})
+    List<PhoneEntity> findAllById(Iterable<Long> ids);
+
+    // The result is kept in the query cache until the phones table is written to
+    @EntityGraph(attributePaths = {"brand"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<PhoneEntity> findByBrandName(String name);
+
+    // Reads the phones with their brand from the table and not from the second level cache, for the catalog snapshot
+    @Query("select p from phones p join fetch p.brand where p.id in :ids")
+    List<PhoneEntity> findAllWithBrandByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reads the stock of the phone and keeps its row locked until the end of the transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from phones p where p.id = :id")
+    Optional<PhoneEntity> findForUpdateById(@Param("id") Long id);
+
+    // Reads the stock of the phones of an order and keeps their rows locked until the end of the transaction.
+    // The rows are locked in id order, so that orders sharing phones wait for each other instead of deadlocking.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from phones p where p.id in :ids order by p.id")
+    List<PhoneEntity> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Guarded decrement, only succeeds (returns 1) when there is enough stock left. Used for the combined
+    // reservations of a single phone, orders lock their phones with findAllForUpdateByIdIn instead.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update phones p set p.quantity = p.quantity - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "where p.id = :id and p.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update phones p set p.quantity = p.quantity + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "where p.id = :id")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") Long quantity);
 }
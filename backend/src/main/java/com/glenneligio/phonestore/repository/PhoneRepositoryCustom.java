@@ -0,0 +1,12 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+
+import java.util.List;
+
+public interface PhoneRepositoryCustom {
+
+    // Returns up to limit + 1 phones after the cursor, the extra phone tells if there is a next page
+    List<PhoneEntity> findPhonePage(PhonePageRequest pageRequest);
+}
@@ -0,0 +1,74 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.dtos.PhoneCursor;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.enums.PhoneSortKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PhoneRepositoryCustomImpl implements PhoneRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<PhoneEntity> findPhonePage(PhonePageRequest pageRequest) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PhoneEntity> query = cb.createQuery(PhoneEntity.class);
+        Root<PhoneEntity> phone = query.from(PhoneEntity.class);
+        Join<PhoneEntity, BrandEntity> brand = (Join<PhoneEntity, BrandEntity>) phone.<PhoneEntity, BrandEntity>fetch("brand");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if(pageRequest.getBrandName() != null) predicates.add(cb.equal(brand.get("name"), pageRequest.getBrandName()));
+        if(pageRequest.getMinPrice() != null) predicates.add(cb.greaterThanOrEqualTo(phone.get("price"), pageRequest.getMinPrice()));
+        if(pageRequest.getMaxPrice() != null) predicates.add(cb.lessThanOrEqualTo(phone.get("price"), pageRequest.getMaxPrice()));
+        if(pageRequest.getCursor() != null) predicates.add(after(cb, phone, pageRequest.getCursor(), pageRequest.isAscending()));
+
+        // The id is always the last sort key so that the order is stable between pages
+        Path<Long> id = phone.get("id");
+        List<Order> orders = new ArrayList<>();
+        if(pageRequest.getSortKey() != PhoneSortKey.ID) {
+            orders.add(direction(cb, phone.get(pageRequest.getSortKey().getType()), pageRequest.isAscending()));
+        }
+        orders.add(direction(cb, id, pageRequest.isAscending()));
+
+        query.select(phone)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+        return entityManager.createQuery(query)
+                .setMaxResults(pageRequest.getLimit() + 1)
+                .getResultList();
+    }
+
+    private Predicate after(CriteriaBuilder cb, Root<PhoneEntity> phone, PhoneCursor cursor, boolean ascending) {
+        Path<Long> id = phone.get("id");
+        Predicate afterId = ascending ? cb.greaterThan(id, cursor.getId()) : cb.lessThan(id, cursor.getId());
+        return switch (cursor.getSortKey()) {
+            case ID -> afterId;
+            case PRICE, EFFECTIVE_PRICE -> afterKey(cb, phone.get(cursor.getSortKey().getType()), cursor.getValueAsDouble(), ascending, afterId);
+            case UPDATED_AT -> afterKey(cb, phone.get(cursor.getSortKey().getType()), cursor.getValueAsDateTime(), ascending, afterId);
+        };
+    }
+
+    // (key > value) or (key = value and id > lastId), flipped for descending order. Nulls sort first in
+    // ascending order, like in the database and the catalog snapshot, so they come last in descending order.
+    private <T extends Comparable<? super T>> Predicate afterKey(CriteriaBuilder cb, Path<T> key, T value, boolean ascending, Predicate afterId) {
+        if(value == null) {
+            Predicate nullAfterId = cb.and(cb.isNull(key), afterId);
+            return ascending ? cb.or(cb.isNotNull(key), nullAfterId) : nullAfterId;
+        }
+        Predicate beyondKey = ascending ? cb.greaterThan(key, value) : cb.or(cb.lessThan(key, value), cb.isNull(key));
+        return cb.or(beyondKey, cb.and(cb.equal(key, value), afterId));
+    }
+
+    private Order direction(CriteriaBuilder cb, Expression<?> expression, boolean ascending) {
+        return ascending ? cb.asc(expression) : cb.desc(expression);
+    }
+}
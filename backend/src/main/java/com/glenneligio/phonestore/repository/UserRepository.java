@@ -2,10 +2,16 @@ package com.glenneligio.phonestore.repository;
 
 import com.glenneligio.phonestore.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<UserEntity, Long> {
+// findByUsername is in UserRepositoryCustom, it loads the user by its natural id
+public interface UserRepository extends JpaRepository<UserEntity, Long>, UserRepositoryCustom {
 
-    Optional<UserEntity> findByUsername(String username);
+    // Read from the table and not the second level cache, so that the revocations of the other nodes are seen.
+    // A user without revocation gives 0, a user that does not exist gives nothing.
+    @Query("select coalesce(u.tokensRevokedAt, 0L) from users u where u.username = :username")
+    Optional<Long> findTokensRevokedAtByUsername(@Param("username") String username);
 }
@@ -0,0 +1,11 @@
+package com.glenneligio.phonestore.repository;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    // Loads the user by its natural id, so the natural id and second level caches are used
+    Optional<UserEntity> findByUsername(String username);
+}
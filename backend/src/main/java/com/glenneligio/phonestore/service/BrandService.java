@@ -1,97 +1,101 @@
 package com.glenneligio.phonestore.service;
 
+import com.glenneligio.phonestore.configurations.CacheConfiguration;
+import com.glenneligio.phonestore.events.BrandChangedEvent;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.entity.BrandEntity;
 import com.glenneligio.phonestore.entity.PhoneEntity;
 import com.glenneligio.phonestore.repository.BrandRepository;
-import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
-@Slf4j
 public class BrandService {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
 
     private BrandRepository brandRepository;
     private ModelMapper mapper;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public BrandService(BrandRepository brandRepository, ModelMapper mapper) {
+    public BrandService(BrandRepository brandRepository, ModelMapper mapper, ApplicationEventPublisher eventPublisher) {
         this.brandRepository = brandRepository;
         this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<BrandEntity> getAllBrands() {
-        final String METHOD_NAME = "getAllBrands";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<BrandEntity> brandEntityList = brandRepository.findAll();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return brandEntityList;
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.BRANDS, key = "#brandId")
+    @Transactional(readOnly = true)
     public BrandEntity getBrandById(Long brandId) {
-        final String METHOD_NAME = "getBrandById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         BrandEntity brandEntity = brandRepository.findById(brandId).orElseThrow(() -> new ApiException("Brand with specified id was not founds", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return brandEntity;
     }
 
+    // Called for every phone that is created or updated, brands almost never change so it is cached
+    @Cacheable(cacheNames = CacheConfiguration.BRANDS_BY_NAME, key = "#name")
+    @Transactional(readOnly = true)
     public BrandEntity getBrandByName(String name) {
-        final String METHOD_NAME = "getBrandByName";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         BrandEntity entity = brandRepository.findByName(name).orElseThrow(() -> new ApiException("Brand with specified name was not found", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return entity;
     }
 
+    @CacheEvict(cacheNames = CacheConfiguration.PHONES_BY_BRAND, key = "#brandEntity.name")
     public BrandEntity createBrand(BrandEntity brandEntity) {
-        final String METHOD_NAME = "createBrand";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         Optional<BrandEntity> brandOptional = brandRepository.findByName(brandEntity.getName());
         if(brandOptional.isPresent()) throw new ApiException("Brand with same name already exist", HttpStatus.BAD_REQUEST);
         brandEntity.setPhoneList(new ArrayList<>());
         BrandEntity brandCreated = brandRepository.save(brandEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        eventPublisher.publishEvent(new BrandChangedEvent(brandCreated.getId()));
         return brandCreated;
     }
 
+    // The old name of the brand is not known here and the cached phones hold the brand, so those caches are cleared
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.BRANDS, key = "#brandId"),
+            @CacheEvict(cacheNames = {CacheConfiguration.BRANDS_BY_NAME, CacheConfiguration.PHONES, CacheConfiguration.PHONES_BY_BRAND}, allEntries = true)
+    })
     public BrandEntity updateBrandById(Long brandId, BrandEntity brandEntity) {
-        final String METHOD_NAME = "updateBrandById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         BrandEntity brandEntity1 = brandRepository.findById(brandId)
                 .orElseThrow(() -> new ApiException("Brand with specified id was not found", HttpStatus.NOT_FOUND));
         Optional<BrandEntity> brandOptional = brandRepository.findByName(brandEntity.getName());
         if(brandOptional.isPresent()) throw new ApiException("Brand with same name already exist", HttpStatus.BAD_REQUEST);
         mapper.map(brandEntity, brandEntity1);
         BrandEntity brandUpdated = brandRepository.save(brandEntity1);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        eventPublisher.publishEvent(new BrandChangedEvent(brandId));
         return brandUpdated;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.BRANDS, key = "#brandId"),
+            @CacheEvict(cacheNames = {CacheConfiguration.BRANDS_BY_NAME, CacheConfiguration.PHONES, CacheConfiguration.PHONES_BY_BRAND}, allEntries = true)
+    })
     public void deleteBrandById(Long brandId) {
-        final String METHOD_NAME = "deleteBrandById";
-        log.info("Entering methdo {}", METHOD_NAME);
         BrandEntity brandEntity = brandRepository.findById(brandId).orElseThrow(() -> new ApiException("Brand with specified id was not found", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         brandRepository.delete(brandEntity);
+        eventPublisher.publishEvent(new BrandChangedEvent(brandId));
     }
 
+    @Transactional(readOnly = true)
     public List<PhoneEntity> getBrandPhones(String brandName) {
-        final String METHOD_NAME = "getBrandPhones";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        BrandEntity brandEntity = brandRepository.findByName(brandName)
+        BrandEntity brandEntity = brandRepository.findWithPhoneListByName(brandName)
                 .orElseThrow(() -> new ApiException("Brand with specified brand name does not exist", HttpStatus.NOT_FOUND));
         List<PhoneEntity> phoneEntityList = brandEntity.getPhoneList();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return phoneEntityList;
     }
 }
@@ -0,0 +1,149 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.dtos.BrandDto;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.events.BrandChangedEvent;
+import com.glenneligio.phonestore.events.PhoneDeletedEvent;
+import com.glenneligio.phonestore.events.PhoneSavedEvent;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.repository.BrandRepository;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+// Serves the public catalog reads from an in-memory snapshot. The snapshot is fully rebuilt from the database
+// on a fixed interval. In between, each committed phone or stock change marks its phones as stale, and the
+// stale phones are read again from the database every refresh interval. The rebuilds and refreshes run one
+// at a time and each one reads after the changes it picks up were committed, so a later read always replaces
+// an earlier one and no change is lost or applied twice, unlike stock deltas applied to the snapshot.
+@Service
+@Slf4j
+public class CatalogService {
+
+    private final PhoneRepository phoneRepository;
+    private final BrandRepository brandRepository;
+    private final boolean enabled;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+    private final Set<Long> stalePhoneIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CatalogService(PhoneRepository phoneRepository,
+                          BrandRepository brandRepository,
+                          @Value("${phone-store.catalog.snapshot-enabled:true}") boolean enabled) {
+        this.phoneRepository = phoneRepository;
+        this.brandRepository = brandRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<BrandDto> getAllBrands() {
+        return getSnapshot().getBrands();
+    }
+
+    public PhonePage<PhoneDto> getPhonePage(PhonePageRequest pageRequest) {
+        return getSnapshot().findPhonePage(pageRequest);
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        return current != null ? current : rebuild();
+    }
+
+    public synchronized CatalogSnapshot rebuild() {
+        List<BrandDto> brands = brandRepository.findAll().stream()
+                .map(BrandDto::convertToDto)
+                .sorted(Comparator.comparing(BrandDto::getId))
+                .toList();
+        Map<Long, PhoneDto> phones = phoneRepository.findAll().stream()
+                .map(PhoneDto::convertToDto)
+                .collect(Collectors.toMap(PhoneDto::getId, Function.identity()));
+        CatalogSnapshot current = snapshot.get();
+        CatalogSnapshot rebuilt = new CatalogSnapshot(current == null ? 1 : current.getVersion() + 1, brands, phones);
+        snapshot.set(rebuilt);
+        log.info("Catalog snapshot version {} built with {} brands and {} phones", rebuilt.getVersion(), brands.size(), phones.size());
+        return rebuilt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if(enabled) rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${phone-store.catalog.rebuild-interval:PT5M}", initialDelayString = "${phone-store.catalog.rebuild-interval:PT5M}")
+    public void scheduledRebuild() {
+        if(enabled) rebuild();
+    }
+
+    // Reads the stale phones again and puts them in the snapshot as they are in the database
+    @Scheduled(fixedDelayString = "${phone-store.catalog.refresh-interval:PT0.1S}")
+    public synchronized void refreshStalePhones() {
+        if(!enabled || snapshot.get() == null || stalePhoneIds.isEmpty()) return;
+        // Taken off before the read, a phone marked again meanwhile is read again by the next refresh
+        List<Long> phoneIds = new ArrayList<>(stalePhoneIds);
+        stalePhoneIds.removeAll(phoneIds);
+        List<PhoneDto> phones = phoneRepository.findAllWithBrandByIdIn(phoneIds).stream()
+                .map(PhoneDto::convertToDto)
+                .toList();
+        snapshot.updateAndGet(current -> current.withRefreshedPhones(phoneIds, phones));
+        log.debug("Refreshed {} stale phones of the catalog snapshot", phoneIds.size());
+    }
+
+    // The saved phone is shown right away, and read again in case a rebuild replaced the snapshot meanwhile
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneSaved(PhoneSavedEvent event) {
+        PhoneDto phone = PhoneDto.convertToDto(event.getPhone());
+        update(current -> current.withPhone(phone));
+        markStale(List.of(phone.getId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneDeleted(PhoneDeletedEvent event) {
+        update(current -> current.withoutPhone(event.getPhoneId()));
+        markStale(List.of(event.getPhoneId()));
+    }
+
+    // The stock of the phones is read again instead of applying the change, which a rebuild may already have read
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneStockChanged(PhoneStockChangedEvent event) {
+        markStale(event.getQuantityChangeByPhoneId().keySet());
+    }
+
+    // Brands rarely change and a rename touches the phones too, so the snapshot is rebuilt
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        if(enabled && snapshot.get() != null) rebuild();
+    }
+
+    private void update(UnaryOperator<CatalogSnapshot> change) {
+        // Nothing to change before the first build, it will read the change from the database
+        if(!enabled || snapshot.get() == null) return;
+        snapshot.updateAndGet(current -> current == null ? null : change.apply(current));
+    }
+
+    private void markStale(Collection<Long> phoneIds) {
+        if(enabled) stalePhoneIds.addAll(phoneIds);
+    }
+}
@@ -0,0 +1,131 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.dtos.BrandDto;
+import com.glenneligio.phonestore.dtos.PhoneCursor;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.enums.PhoneSortKey;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Immutable, versioned view of the catalog. Every change creates a new snapshot so that readers
+// never lock and never see a half applied change. The phones and brands in it must not be modified.
+public final class CatalogSnapshot {
+
+    private static final Map<PhoneSortKey, Comparator<PhoneDto>> COMPARATORS = Map.of(
+            PhoneSortKey.ID, Comparator.comparing(PhoneDto::getId),
+            PhoneSortKey.PRICE, Comparator.comparing(PhoneDto::getPrice, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+                    .thenComparing(PhoneDto::getId),
+            PhoneSortKey.EFFECTIVE_PRICE, Comparator.comparing(PhoneDto::getEffectivePrice, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+                    .thenComparing(PhoneDto::getId),
+            PhoneSortKey.UPDATED_AT, Comparator.comparing(PhoneDto::getUpdatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+                    .thenComparing(PhoneDto::getId));
+
+    private final long version;
+    private final List<BrandDto> brands;
+    private final Set<String> brandNames;
+    private final Map<Long, PhoneDto> phonesById;
+    // Sorted phone lists derived from phonesById, built on first use per sort key and known brand
+    private final Map<String, List<PhoneDto>> sortedPhones = new ConcurrentHashMap<>();
+
+    public CatalogSnapshot(long version, List<BrandDto> brands, Map<Long, PhoneDto> phonesById) {
+        this.version = version;
+        this.brands = List.copyOf(brands);
+        this.brandNames = brands.stream().map(BrandDto::getName).collect(Collectors.toUnmodifiableSet());
+        this.phonesById = Collections.unmodifiableMap(phonesById);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<BrandDto> getBrands() {
+        return brands;
+    }
+
+    public int getPhoneCount() {
+        return phonesById.size();
+    }
+
+    public PhonePage<PhoneDto> findPhonePage(PhonePageRequest pageRequest) {
+        List<PhoneDto> sorted = getSortedPhones(pageRequest.getSortKey(), pageRequest.getBrandName());
+        int step = pageRequest.isAscending() ? 1 : -1;
+        List<PhoneDto> phones = new ArrayList<>();
+        for(int i = getStartIndex(sorted, pageRequest); i >= 0 && i < sorted.size() && phones.size() <= pageRequest.getLimit(); i += step) {
+            PhoneDto phone = sorted.get(i);
+            if(isInPriceRange(phone, pageRequest)) phones.add(phone);
+        }
+
+        PhoneCursor nextCursor = null;
+        if(phones.size() > pageRequest.getLimit()) {
+            phones = phones.subList(0, pageRequest.getLimit());
+            nextCursor = PhoneCursor.of(phones.get(phones.size() - 1), pageRequest.getSortKey());
+        }
+        return new PhonePage<>(phones, nextCursor);
+    }
+
+    public CatalogSnapshot withPhone(PhoneDto phone) {
+        PhoneDto existing = phonesById.get(phone.getId());
+        // Ignore an event that arrives after a newer change of the same phone
+        if(existing != null && existing.getUpdatedAt() != null && phone.getUpdatedAt() != null
+                && existing.getUpdatedAt().isAfter(phone.getUpdatedAt())) return this;
+        Map<Long, PhoneDto> phones = new HashMap<>(phonesById);
+        phones.put(phone.getId(), phone);
+        return new CatalogSnapshot(version + 1, brands, phones);
+    }
+
+    public CatalogSnapshot withoutPhone(Long phoneId) {
+        if(!phonesById.containsKey(phoneId)) return this;
+        Map<Long, PhoneDto> phones = new HashMap<>(phonesById);
+        phones.remove(phoneId);
+        return new CatalogSnapshot(version + 1, brands, phones);
+    }
+
+    // Replaces the given phones with the ones read from the database, a phone that was not read no longer exists
+    public CatalogSnapshot withRefreshedPhones(Collection<Long> phoneIds, List<PhoneDto> refreshedPhones) {
+        Map<Long, PhoneDto> phones = new HashMap<>(phonesById);
+        phoneIds.forEach(phones::remove);
+        refreshedPhones.forEach(phone -> phones.put(phone.getId(), phone));
+        return new CatalogSnapshot(version + 1, brands, phones);
+    }
+
+    private List<PhoneDto> getSortedPhones(PhoneSortKey sortKey, String brandName) {
+        // An unknown brand has no phones and is not kept, so that the brand parameter cannot grow the map
+        if(brandName != null && !brandNames.contains(brandName)) return List.of();
+        String key = sortKey.getType() + ":" + (brandName == null ? "" : brandName);
+        return sortedPhones.computeIfAbsent(key, k -> phonesById.values().stream()
+                .filter(phone -> brandName == null || (phone.getBrand() != null && brandName.equals(phone.getBrand().getName())))
+                .sorted(COMPARATORS.get(sortKey))
+                .toList());
+    }
+
+    // Index of the first phone after the cursor, in the direction of the scan
+    private int getStartIndex(List<PhoneDto> sorted, PhonePageRequest pageRequest) {
+        PhoneCursor cursor = pageRequest.getCursor();
+        if(cursor == null) return pageRequest.isAscending() ? 0 : sorted.size() - 1;
+
+        PhoneDto probe = new PhoneDto();
+        probe.setId(cursor.getId());
+        switch (cursor.getSortKey()) {
+            case PRICE -> probe.setPrice(cursor.getValueAsDouble());
+            case EFFECTIVE_PRICE -> probe.setEffectivePrice(cursor.getValueAsDouble());
+            case UPDATED_AT -> probe.setUpdatedAt(cursor.getValueAsDateTime());
+            default -> { }
+        }
+        int index = Collections.binarySearch(sorted, probe, COMPARATORS.get(cursor.getSortKey()));
+        if(index >= 0) return pageRequest.isAscending() ? index + 1 : index - 1;
+        int insertionPoint = -(index + 1);
+        return pageRequest.isAscending() ? insertionPoint : insertionPoint - 1;
+    }
+
+    private boolean isInPriceRange(PhoneDto phone, PhonePageRequest pageRequest) {
+        if(pageRequest.getMinPrice() == null && pageRequest.getMaxPrice() == null) return true;
+        if(phone.getPrice() == null) return false;
+        return (pageRequest.getMinPrice() == null || phone.getPrice() >= pageRequest.getMinPrice())
+                && (pageRequest.getMaxPrice() == null || phone.getPrice() <= pageRequest.getMaxPrice());
+    }
+}
@@ -0,0 +1,144 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.entity.InventoryHoldEntity;
+import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.InventoryHoldRepository;
+import com.glenneligio.phonestore.repository.OrderItemRepository;
+import com.glenneligio.phonestore.repository.OrderRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A pending order holds its stock until its hold expires. Completing the order turns the hold into a sale,
+// an expired hold gives the stock back and marks the order EXPIRED, and so does deleting the pending order,
+// which marks it CANCELLED before it is deleted. All of them claim the order with a conditional
+// status update before they drop the hold, so only one of them wins, on any node. An order is locked before
+// its hold and its phones, and several orders are locked in id order, so these paths cannot deadlock with
+// each other or with the order item changes. The holds are kept apart from the orders and read in expiry
+// order from idx_inventory_holds_expires_at, so the sweeper only ever reads the holds that are due.
+@Service
+@Slf4j
+public class InventoryHoldService {
+
+    private final InventoryHoldRepository inventoryHoldRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final InventoryService inventoryService;
+    private final StoreMetrics storeMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+
+    @Autowired
+    public InventoryHoldService(InventoryHoldRepository inventoryHoldRepository, OrderRepository orderRepository,
+                                OrderItemRepository orderItemRepository, InventoryService inventoryService,
+                                StoreMetrics storeMetrics, PlatformTransactionManager transactionManager,
+                                @Value("${phone-store.inventory-hold.ttl:PT30M}") Duration ttl,
+                                @Value("${phone-store.inventory-hold.batch-size:500}") int batchSize) {
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.inventoryService = inventoryService;
+        this.storeMetrics = storeMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+    }
+
+    // Called in the transaction that saves the pending order
+    @Transactional
+    public InventoryHoldEntity holdOrder(OrderEntity orderEntity) {
+        InventoryHoldEntity hold = InventoryHoldEntity.builder()
+                .order(orderEntity)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build();
+        return inventoryHoldRepository.save(hold);
+    }
+
+    // Turns the hold of the order into a sale. Fails when the order is no longer pending, e.g. when its
+    // hold expired in the meantime and the stock was given back.
+    @Transactional
+    public void completeOrder(Long orderId) {
+        if(orderRepository.updateStatus(orderId, OrderStatus.PENDING, OrderStatus.COMPLETED) == 0)
+            throw new ApiException("Order with id " + orderId + " is no longer pending", HttpStatus.CONFLICT);
+        inventoryHoldRepository.deleteByOrderId(orderId);
+    }
+
+    // Gives back the stock of a pending order that is deleted and drops its hold. It is claimed like an expiry,
+    // so a sweep that expires it meanwhile does not give the stock back a second time. An order that is no
+    // longer pending has no stock to give back, a completed order sold it and an expired one gave it back.
+    @Transactional
+    public void cancelOrder(Long orderId) {
+        if(orderRepository.updateStatus(orderId, OrderStatus.PENDING, OrderStatus.CANCELLED) == 1)
+            inventoryService.releaseStock(sumQuantityByPhoneId(List.of(orderId)));
+        inventoryHoldRepository.deleteByOrderId(orderId);
+    }
+
+    @Scheduled(fixedDelayString = "${phone-store.inventory-hold.sweep-interval:PT10S}", initialDelayString = "${phone-store.inventory-hold.sweep-interval:PT10S}")
+    public void scheduledExpire() {
+        expireDueHolds(LocalDateTime.now());
+    }
+
+    // Expires the holds that are due at the given time, one batch per transaction. Returns the number of
+    // orders that were expired.
+    public int expireDueHolds(LocalDateTime now) {
+        int expired = 0;
+        BatchResult batch;
+        do {
+            batch = transactionTemplate.execute(status -> expireBatch(now));
+            expired += batch.expired();
+        } while(batch.read() == batchSize);
+        if(expired > 0) log.info("Expired {} pending orders", expired);
+        return expired;
+    }
+
+    // The stock of the batch is given back with one increment per phone
+    private BatchResult expireBatch(LocalDateTime now) {
+        List<InventoryHoldEntity> dueHolds = inventoryHoldRepository.findDue(now, PageRequest.of(0, batchSize));
+        List<Long> expiredOrderIds = new ArrayList<>();
+        // the orders are locked in id order
+        List<InventoryHoldEntity> dueHoldsByOrderId = dueHolds.stream()
+                .sorted(Comparator.comparing(hold -> hold.getOrder().getId()))
+                .toList();
+        for(InventoryHoldEntity hold : dueHoldsByOrderId) {
+            Long orderId = hold.getOrder().getId();
+            // the hold of an order that was completed or expired by someone else in the meantime is only dropped
+            if(orderRepository.updateStatus(orderId, OrderStatus.PENDING, OrderStatus.EXPIRED) == 1) expiredOrderIds.add(orderId);
+            inventoryHoldRepository.deleteHoldById(hold.getId());
+        }
+        if(!expiredOrderIds.isEmpty()) {
+            inventoryService.releaseStock(sumQuantityByPhoneId(expiredOrderIds));
+            storeMetrics.inventoryHoldsExpired(expiredOrderIds.size());
+        }
+        return new BatchResult(dueHolds.size(), expiredOrderIds.size());
+    }
+
+    // The quantity of the items of the orders per phone, in phone id order
+    private Map<Long, Long> sumQuantityByPhoneId(List<Long> orderIds) {
+        Map<Long, Long> quantityByPhoneId = new LinkedHashMap<>();
+        orderItemRepository.sumQuantityByPhoneId(orderIds)
+                .forEach(line -> quantityByPhoneId.put(line.getPhoneId(), line.getQuantity()));
+        return quantityByPhoneId;
+    }
+
+    private record BatchResult(int read, int expired) {
+    }
+}
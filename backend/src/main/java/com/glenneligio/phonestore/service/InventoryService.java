@@ -0,0 +1,155 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.entity.OrderItemEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class InventoryService {
+
+    private PhoneRepository phoneRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private StoreMetrics storeMetrics;
+    private StockReservationCombiner reservationCombiner;
+    private PhoneAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    public InventoryService(PhoneRepository phoneRepository, ApplicationEventPublisher eventPublisher, StoreMetrics storeMetrics,
+                            StockReservationCombiner reservationCombiner, PhoneAvailabilityIndex availabilityIndex) {
+        this.phoneRepository = phoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.storeMetrics = storeMetrics;
+        this.reservationCombiner = reservationCombiner;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    // Whether the orders reserve their stock through the flash sale combiner, see reserveStockCombined
+    public boolean isCombinedReservation() {
+        return reservationCombiner.isEnabled();
+    }
+
+    // Reserves the stock of all lines at once: the phones are read and locked in id order with one query,
+    // every line is checked in memory so that every failed line can be reported, and the stock is taken off
+    // the locked phones, which are written in one jdbc batch on flush. The caller's transaction is rolled
+    // back on failure.
+    @Transactional
+    public void reserveStock(Map<Long, Long> quantityByPhoneId) {
+        Map<Long, PhoneEntity> phoneById = phoneRepository.findAllForUpdateByIdIn(quantityByPhoneId.keySet()).stream()
+                .collect(Collectors.toMap(PhoneEntity::getId, Function.identity()));
+        List<Long> missingPhoneIds = new ArrayList<>();
+        List<Long> outOfStockPhoneIds = new ArrayList<>();
+        quantityByPhoneId.forEach((phoneId, quantity) -> {
+            PhoneEntity phone = phoneById.get(phoneId);
+            if(phone == null) {
+                missingPhoneIds.add(phoneId);
+            } else if(phone.getQuantity() == null || phone.getQuantity() < quantity) {
+                outOfStockPhoneIds.add(phoneId);
+                availabilityIndex.reservationFailed(phoneId, quantity);
+            }
+        });
+        throwIfNotReserved(missingPhoneIds, outOfStockPhoneIds);
+        quantityByPhoneId.forEach((phoneId, quantity) -> {
+            PhoneEntity phone = phoneById.get(phoneId);
+            phone.setQuantity(phone.getQuantity() - quantity);
+        });
+        publishStockChange(quantityByPhoneId, -1);
+    }
+
+    // Reserves the stock through the combiner, together with the concurrent orders of the same phones. The
+    // reservations are committed when this returns, so it must not be called inside a transaction, and the
+    // stock has to be given back with releaseStock when the order is not saved. When some lines fail, the
+    // lines that were reserved are given back before the failure is thrown.
+    @Transactional(propagation = Propagation.NEVER)
+    public void reserveStockCombined(Map<Long, Long> quantityByPhoneId) {
+        Map<Long, CompletableFuture<Boolean>> reservationByPhoneId = new LinkedHashMap<>();
+        quantityByPhoneId.forEach((phoneId, quantity) -> reservationByPhoneId.put(phoneId, reservationCombiner.submit(phoneId, quantity)));
+        Map<Long, Long> reservedQuantityByPhoneId = new LinkedHashMap<>();
+        List<Long> missingPhoneIds = new ArrayList<>();
+        List<Long> outOfStockPhoneIds = new ArrayList<>();
+        RuntimeException failure = null;
+        for(Map.Entry<Long, CompletableFuture<Boolean>> reservation : reservationByPhoneId.entrySet()) {
+            Long phoneId = reservation.getKey();
+            try {
+                if(reservationCombiner.await(reservation.getValue())) reservedQuantityByPhoneId.put(phoneId, quantityByPhoneId.get(phoneId));
+                else {
+                    outOfStockPhoneIds.add(phoneId);
+                    availabilityIndex.reservationFailed(phoneId, quantityByPhoneId.get(phoneId));
+                }
+            } catch (ApiException e) {
+                if(e.getCode() == HttpStatus.NOT_FOUND) missingPhoneIds.add(phoneId);
+                else failure = e;
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if(failure != null || !missingPhoneIds.isEmpty() || !outOfStockPhoneIds.isEmpty()) {
+            if(!reservedQuantityByPhoneId.isEmpty()) reservationCombiner.release(reservedQuantityByPhoneId);
+            if(failure != null) throw failure;
+            throwIfNotReserved(missingPhoneIds, outOfStockPhoneIds);
+        }
+        publishStockChange(quantityByPhoneId, -1);
+    }
+
+    @Transactional
+    public void reserveStock(Long phoneId, Long quantity) {
+        reserveStock(Map.of(phoneId, quantity));
+    }
+
+    @Transactional
+    public void releaseStock(Long phoneId, Long quantity) {
+        if(phoneRepository.incrementQuantity(phoneId, quantity) == 0) throw new ApiException("Phone with specified id does not exist", HttpStatus.NOT_FOUND);
+        eventPublisher.publishEvent(new PhoneStockChangedEvent(Map.of(phoneId, quantity)));
+    }
+
+    // Gives back the stock of an order that reserved it with reserveStockCombined but was not saved
+    @Transactional
+    public void releaseStock(Map<Long, Long> quantityByPhoneId) {
+        // in phone id order, like reserveStock locks them
+        new TreeMap<>(quantityByPhoneId).forEach(phoneRepository::incrementQuantity);
+        publishStockChange(quantityByPhoneId, 1);
+    }
+
+    private void throwIfNotReserved(List<Long> missingPhoneIds, List<Long> outOfStockPhoneIds) {
+        if(!missingPhoneIds.isEmpty()) {
+            storeMetrics.stockReservationNotFound();
+            throw new ApiException("Phones with id " + missingPhoneIds + " does not exist", HttpStatus.NOT_FOUND);
+        }
+        if(!outOfStockPhoneIds.isEmpty()) {
+            storeMetrics.stockReservationOutOfStock();
+            throw new ApiException("Phones with id " + outOfStockPhoneIds + " does not have enough stock", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private void publishStockChange(Map<Long, Long> quantityByPhoneId, long sign) {
+        Map<Long, Long> quantityChangeByPhoneId = new LinkedHashMap<>();
+        quantityByPhoneId.forEach((phoneId, quantity) -> quantityChangeByPhoneId.put(phoneId, sign * quantity));
+        eventPublisher.publishEvent(new PhoneStockChangedEvent(quantityChangeByPhoneId));
+    }
+
+    // Sums up the quantity per phone, keeping the order of the lines
+    public static Map<Long, Long> getQuantityByPhoneId(List<OrderItemEntity> orderItems) {
+        return orderItems.stream()
+                .collect(Collectors.toMap(item -> item.getPhone().getId(),
+                        OrderItemEntity::getQuantity,
+                        Long::sum,
+                        LinkedHashMap::new));
+    }
+}
@@ -10,105 +10,165 @@ import com.glenneligio.phonestore.entity.UserEntity;
 import com.glenneligio.phonestore.enums.OrderStatus;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.repository.OrderRepository;
-import jakarta.transaction.Transactional;
-import lombok.extern.slf4j.Slf4j;
+import com.glenneligio.phonestore.util.StoreMetrics;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@Slf4j
 public class OrderService {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
 
     private OrderRepository orderRepository;
     private PhoneService phoneService;
     private UserService userService;
+    private InventoryService inventoryService;
+    private PhoneAvailabilityIndex availabilityIndex;
+    private InventoryHoldService inventoryHoldService;
+    private StoreMetrics storeMetrics;
+    private TransactionTemplate transactionTemplate;
 
     @Autowired
-    public OrderService(OrderRepository orderRepository, PhoneService phoneService, UserService userService) {
+    public OrderService(OrderRepository orderRepository, PhoneService phoneService, UserService userService, InventoryService inventoryService,
+                        PhoneAvailabilityIndex availabilityIndex, InventoryHoldService inventoryHoldService, StoreMetrics storeMetrics,
+                        PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.phoneService = phoneService;
         this.userService = userService;
+        this.inventoryService = inventoryService;
+        this.availabilityIndex = availabilityIndex;
+        this.inventoryHoldService = inventoryHoldService;
+        this.storeMetrics = storeMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderEntity> getAllOrders() {
-        final String METHOD_NAME = "getAllOrders";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<OrderEntity> orderEntityList = orderRepository.findAll();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return orderEntityList;
     }
 
+    @Transactional(readOnly = true)
     public OrderEntity getOrderById(Long id) {
-        final String METHOD_NAME = "getOrderById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        OrderEntity orderEntity = orderRepository.findById(id)
+        OrderEntity orderEntity = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return orderEntity;
     }
 
+    // Only reads the username of the owner of the order, for checking who owns it
+    @Transactional(readOnly = true)
+    public String getOrderOwnerUsername(Long id) {
+        String ownerUsername = orderRepository.findOwnerUsernameById(id)
+                .orElseThrow(() -> new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND));
+        return ownerUsername;
+    }
+
+    // Reference to the order for setting the order of an item, only checks that the order exists without loading it
+    @Transactional(readOnly = true)
+    public OrderEntity getOrderReference(Long id) {
+        if(!orderRepository.existsById(id))
+            throw new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND);
+        OrderEntity orderEntity = orderRepository.getReferenceById(id);
+        return orderEntity;
+    }
+
+    // The order that an item is added to or moved between, locked so that it cannot expire or complete while
+    // the stock of its items changes. Only a pending order still holds stock that can change.
     @Transactional
+    public OrderEntity getPendingOrderForUpdate(Long id) {
+        OrderEntity orderEntity = orderRepository.findForUpdateById(id)
+                .orElseThrow(() -> new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND));
+        if(orderEntity.getStatus() != OrderStatus.PENDING)
+            throw new ApiException("Order with id " + id + " is no longer pending", HttpStatus.CONFLICT);
+        return orderEntity;
+    }
+
+    // The order is saved in a transaction of its own. In flash sale mode the stock is reserved through the
+    // combiner before that transaction starts, so that no connection is held while the reservation waits for
+    // its batch, and it is given back when the order is not saved. Orders for phones that are known to be
+    // sold out are rejected before any of that.
     public OrderEntity createOrder(OrderEntity orderEntity) {
-        final String METHOD_NAME = "createOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
+        Map<Long, Long> quantityByPhoneId = InventoryService.getQuantityByPhoneId(orderEntity.getOrderItems());
+        availabilityIndex.rejectIfNotAvailable(quantityByPhoneId);
+        if(!inventoryService.isCombinedReservation()) {
+            return transactionTemplate.execute(status -> {
+                // lock the phones of the order in id order and take their stock off in memory
+                inventoryService.reserveStock(quantityByPhoneId);
+                return saveOrder(orderEntity, quantityByPhoneId);
+            });
+        }
+        inventoryService.reserveStockCombined(quantityByPhoneId);
+        try {
+            return transactionTemplate.execute(status -> saveOrder(orderEntity, quantityByPhoneId));
+        } catch (RuntimeException e) {
+            inventoryService.releaseStock(quantityByPhoneId);
+            throw e;
+        }
+    }
+
+    private OrderEntity saveOrder(OrderEntity orderEntity, Map<Long, Long> quantityByPhoneId) {
         // Check if the user attached exist
         UserEntity userEntity = userService.getUserByUsername(orderEntity.getUser().getUsername());
         orderEntity.setUser(userEntity);
 
-        // check each there is enough stock for each Phone in OrderItem
+        Map<Long, PhoneEntity> phoneById = phoneService.getPhonesByIds(quantityByPhoneId.keySet()).stream()
+                .collect(Collectors.toMap(PhoneEntity::getId, Function.identity()));
         List<OrderItemEntity> orderItemEntityList = orderEntity.getOrderItems().stream().map(orderItemEntity -> {
-            PhoneEntity phone = phoneService.getPhoneById(orderItemEntity.getPhone().getId());
-            if(orderItemEntity.getQuantity() > phone.getQuantity()) throw new ApiException("Not enough quantity for the phone with id " + phone.getId(), HttpStatus.BAD_GATEWAY);
-            // reduce the quantity of the phone
-            phone.setQuantity(phone.getQuantity() - orderItemEntity.getQuantity());
-            PhoneEntity updatedPhone = phoneService.updatePhone(phone.getId(), phone);
             orderItemEntity.setOrder(orderEntity);
-            orderItemEntity.setPhone(updatedPhone);
+            orderItemEntity.setPhone(phoneById.get(orderItemEntity.getPhone().getId()));
             return orderItemEntity;
         }).toList();
 
         orderEntity.setOrderItems(orderItemEntityList);
         orderEntity.setStatus(OrderStatus.PENDING);
         OrderEntity orderSaved = orderRepository.save(orderEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        // the stock stays reserved for the pending order until its hold expires
+        inventoryHoldService.holdOrder(orderSaved);
+        storeMetrics.orderPlaced();
         return orderSaved;
     }
 
     // NOTE: Update in order is done using order items
+    // The only status change is from PENDING to COMPLETED, which turns the hold of the order into a sale. Any
+    // other change would leave stock behind without a hold, or a hold for an order that is no longer pending.
+    // The order is locked so that it cannot expire while it is updated.
     @Transactional
     public OrderEntity updateOrder(Long id, OrderEntity entity) {
-        final String METHOD_NAME = "updateOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        OrderEntity order = orderRepository.findById(id)
+        OrderEntity order = orderRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND));
+        if(order.getStatus() == OrderStatus.EXPIRED) throw new ApiException("Order with id " + id + " has expired", HttpStatus.CONFLICT);
+        if(order.getStatus() != entity.getStatus()) {
+            if(order.getStatus() != OrderStatus.PENDING || entity.getStatus() != OrderStatus.COMPLETED)
+                throw new ApiException("Order with id " + id + " cannot go from " + order.getStatus() + " to " + entity.getStatus(), HttpStatus.CONFLICT);
+            inventoryHoldService.completeOrder(id);
+        }
         order.setOrderItems(entity.getOrderItems());
         order.setUser(entity.getUser());
         order.setStatus(entity.getStatus());
         OrderEntity orderEntityUpdated = orderRepository.save(order);
-        log.info(EXITING_METHOD, orderEntityUpdated);
         return orderEntityUpdated;
     }
 
+    @Transactional
     public void deleteOrder(Long id) {
-        final String METHOD_NAME = "deleteOrder";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        OrderEntity order = orderRepository.findById(id)
+        // locked before its hold and its phones, like the sweeper does
+        OrderEntity order = orderRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ApiException("Order with id " + id + " was not found", HttpStatus.NOT_FOUND));
+        inventoryHoldService.cancelOrder(id);
         orderRepository.delete(order);
-        log.info(EXITING_METHOD, METHOD_NAME);
     }
 
+    @Transactional(readOnly = true)
     public List<OrderEntity> getOrderByUserUsername(String username) {
-        final String METHOD_NAME = "getOrderByUserUsrename";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<OrderEntity> orderEntityList = orderRepository.findByUserUsername(username);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return orderEntityList;
     }
 }
@@ -0,0 +1,96 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.events.PhoneDeletedEvent;
+import com.glenneligio.phonestore.events.PhoneSavedEvent;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Node-local index of the phones that are known to be short of stock, so that orders for a sold out phone are
+// rejected without going to the database. An entry keeps the most stock the phone can have left, learned
+// from a failed reservation or from a phone saved without stock, and follows the committed stock changes
+// of this node. Restocks on other nodes are not seen here, so an entry expires after the ttl and the next
+// order goes to the database again. Phones without an entry are always left to the database.
+@Component
+public class PhoneAvailabilityIndex {
+
+    private final StoreMetrics storeMetrics;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final Map<Long, Entry> entryByPhoneId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PhoneAvailabilityIndex(StoreMetrics storeMetrics,
+                                  @Value("${phone-store.availability-index.enabled:true}") boolean enabled,
+                                  @Value("${phone-store.availability-index.ttl:PT5S}") Duration ttl) {
+        this.storeMetrics = storeMetrics;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    // Throws the same error as a failed reservation when a line asks for more than its phone can have left
+    public void rejectIfNotAvailable(Map<Long, Long> quantityByPhoneId) {
+        if(!enabled || entryByPhoneId.isEmpty()) return;
+        List<Long> outOfStockPhoneIds = new ArrayList<>();
+        long now = System.nanoTime();
+        quantityByPhoneId.forEach((phoneId, quantity) -> {
+            Entry entry = entryByPhoneId.get(phoneId);
+            if(entry == null) return;
+            if(entry.isExpired(now)) entryByPhoneId.remove(phoneId, entry);
+            else if(quantity > entry.maxAvailable()) outOfStockPhoneIds.add(phoneId);
+        });
+        if(outOfStockPhoneIds.isEmpty()) return;
+        storeMetrics.stockReservationRejectedByIndex();
+        throw new ApiException("Phones with id " + outOfStockPhoneIds + " does not have enough stock", HttpStatus.BAD_REQUEST);
+    }
+
+    // A reservation of the quantity failed, so the phone has less than that left
+    public void reservationFailed(Long phoneId, Long quantity) {
+        if(!enabled) return;
+        entryByPhoneId.put(phoneId, new Entry(quantity - 1, System.nanoTime() + ttlNanos));
+    }
+
+    // A reservation of more than the entry allows means that the entry is out of date, it is dropped
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneStockChanged(PhoneStockChangedEvent event) {
+        event.getQuantityChangeByPhoneId().forEach((phoneId, quantityChange) ->
+                entryByPhoneId.computeIfPresent(phoneId, (id, entry) -> entry.withChange(quantityChange)));
+    }
+
+    // A saved phone has exactly the saved stock, a restock lifts the entry
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneSaved(PhoneSavedEvent event) {
+        Long phoneId = event.getPhone().getId();
+        if(enabled && Objects.equals(event.getPhone().getQuantity(), 0L)) entryByPhoneId.put(phoneId, new Entry(0, System.nanoTime() + ttlNanos));
+        else entryByPhoneId.remove(phoneId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPhoneDeleted(PhoneDeletedEvent event) {
+        entryByPhoneId.remove(event.getPhoneId());
+    }
+
+    private record Entry(long maxAvailable, long expiresAtNanos) {
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        Entry withChange(long quantityChange) {
+            long changed = maxAvailable + quantityChange;
+            return changed < 0 ? null : new Entry(changed, expiresAtNanos);
+        }
+    }
+}
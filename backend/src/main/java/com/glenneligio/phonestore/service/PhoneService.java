@@ -1,69 +1,95 @@
 package com.glenneligio.phonestore.service;
 
+import com.glenneligio.phonestore.configurations.CacheConfiguration;
+import com.glenneligio.phonestore.dtos.PhoneCursor;
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.events.PhoneDeletedEvent;
+import com.glenneligio.phonestore.events.PhoneSavedEvent;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.entity.BrandEntity;
 import com.glenneligio.phonestore.entity.PhoneEntity;
 import com.glenneligio.phonestore.repository.PhoneRepository;
-import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
-@Slf4j
 public class PhoneService {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
 
     private PhoneRepository phoneRepository;
     private BrandService brandService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public PhoneService(PhoneRepository phoneRepository, BrandService brandService) {
+    public PhoneService(PhoneRepository phoneRepository, BrandService brandService, ApplicationEventPublisher eventPublisher) {
         this.phoneRepository = phoneRepository;
         this.brandService = brandService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional(readOnly = true)
     public List<PhoneEntity> getAllPhones() {
-        final String METHOD_NAME = "getAllPhones";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<PhoneEntity> phoneEntityList = phoneRepository.findAll();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return phoneEntityList;
     }
 
+    @Transactional(readOnly = true)
+    public PhonePage<PhoneEntity> getPhonePage(PhonePageRequest pageRequest) {
+        List<PhoneEntity> phoneEntityList = phoneRepository.findPhonePage(pageRequest);
+        PhoneCursor nextCursor = null;
+        if(phoneEntityList.size() > pageRequest.getLimit()) {
+            phoneEntityList = phoneEntityList.subList(0, pageRequest.getLimit());
+            nextCursor = PhoneCursor.of(phoneEntityList.get(phoneEntityList.size() - 1), pageRequest.getSortKey());
+        }
+        return new PhonePage<>(phoneEntityList, nextCursor);
+    }
+
+    @Cacheable(cacheNames = CacheConfiguration.PHONES, key = "#id")
+    @Transactional(readOnly = true)
     public PhoneEntity getPhoneById(Long id) {
-        final String METHOD_NAME = "getPhoneById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         PhoneEntity phone = phoneRepository.findById(id).orElseThrow(() -> new ApiException("Phone with specified id does not exist", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return phone;
     }
 
+    @Transactional(readOnly = true)
+    public List<PhoneEntity> getPhonesByIds(Collection<Long> ids) {
+        List<PhoneEntity> phoneEntityList = phoneRepository.findAllById(ids);
+        if(phoneEntityList.size() != ids.size()) throw new ApiException("Some of the phones with specified ids does not exist", HttpStatus.NOT_FOUND);
+        return phoneEntityList;
+    }
+
+    @Cacheable(cacheNames = CacheConfiguration.PHONES_BY_BRAND, key = "#name")
+    @Transactional(readOnly = true)
     public List<PhoneEntity> getPhonesByBrandName(String name) {
-        final String METHOD_NAME = "getPhoneByBrandName";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<PhoneEntity> phoneEntityList = phoneRepository.findByBrandName(name);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return phoneEntityList;
     }
 
+    @CacheEvict(cacheNames = CacheConfiguration.PHONES_BY_BRAND, key = "#result.brand.name")
     public PhoneEntity createPhone(PhoneEntity phoneEntity) {
-        final String METHOD_NAME = "createPhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         BrandEntity brandEntity = brandService.getBrandByName(phoneEntity.getBrand().getName());
         phoneEntity.setBrand(brandEntity);
         PhoneEntity phoneCreated = phoneRepository.save(phoneEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        eventPublisher.publishEvent(new PhoneSavedEvent(phoneCreated));
         return phoneCreated;
     }
 
+    // The phone can move to another brand, so every brand list is cleared
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.PHONES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.PHONES_BY_BRAND, allEntries = true)
+    })
     public PhoneEntity updatePhone(Long id, PhoneEntity phoneEntity) {
-        final String METHOD_NAME = "updatePhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         PhoneEntity phoneEntity1 = phoneRepository.findById(id).orElseThrow(() -> new ApiException("Phone with specified id does not exists", HttpStatus.NOT_FOUND));
         BrandEntity brandEntity = brandService.getBrandByName(phoneEntity.getBrand().getName());
         phoneEntity1.setQuantity(phoneEntity.getQuantity());
@@ -73,17 +99,18 @@ public class PhoneService {
         phoneEntity1.setPrice(phoneEntity.getPrice());
         phoneEntity1.setSpecification(phoneEntity.getSpecification());
         PhoneEntity phoneUpdated = phoneRepository.save(phoneEntity1);
-        log.info(EXITING_METHOD, METHOD_NAME);
-        log.info("Updated phone {}", phoneUpdated);
+        eventPublisher.publishEvent(new PhoneSavedEvent(phoneUpdated));
         return phoneUpdated;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.PHONES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.PHONES_BY_BRAND, allEntries = true)
+    })
     public void deletePhone(Long id) {
-        final String METHOD_NAME = "deletePhone";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         PhoneEntity phoneEntity = phoneRepository.findById(id).orElseThrow(() -> new ApiException("Phone with specified id does not exist", HttpStatus.NOT_FOUND));
         phoneRepository.delete(phoneEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        eventPublisher.publishEvent(new PhoneDeletedEvent(id));
     }
 
 }
@@ -0,0 +1,38 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.configurations.CacheConfiguration;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// The stock of a phone is changed by InventoryService without going through PhoneService, so the cached phones are evicted
+// here. The entries are evicted right away so that a read later in the same transaction sees the new stock,
+// and again after the commit in case another request cached the old stock in between.
+@Component
+@Slf4j
+public class PhoneStockCacheEvictor {
+
+    private final Cache phoneCache;
+    private final Cache phonesByBrandCache;
+
+    @Autowired
+    public PhoneStockCacheEvictor(CacheManager cacheManager) {
+        this.phoneCache = cacheManager.getCache(CacheConfiguration.PHONES);
+        this.phonesByBrandCache = cacheManager.getCache(CacheConfiguration.PHONES_BY_BRAND);
+    }
+
+    @EventListener
+    public void onPhoneStockChanged(PhoneStockChangedEvent event) {
+        log.debug("Evicting cached phones with id {}", event.getQuantityChangeByPhoneId().keySet());
+        event.getQuantityChangeByPhoneId().keySet().forEach(phoneId -> {
+            phoneCache.evictIfPresent(phoneId);
+            phoneCache.evict(phoneId);
+        });
+        phonesByBrandCache.invalidate();
+        phonesByBrandCache.clear();
+    }
+}
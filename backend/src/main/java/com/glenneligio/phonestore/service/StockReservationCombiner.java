@@ -0,0 +1,177 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Flash sale mode. The concurrent reservations of a phone are queued and applied together: the row of the
+// phone is locked once, the stock is handed out in arrival order and the sum is taken off in one decrement.
+// A batch is applied when it is full or when the window since its first reservation has passed, so the
+// row lock is held once per batch instead of once per order.
+// Every batch commits on its own, callers must not wait for a reservation inside a transaction of their
+// own. That transaction would hold a connection from the pool while the batch needs one as well.
+@Component
+@Slf4j
+public class StockReservationCombiner {
+
+    private final PhoneRepository phoneRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration window;
+    private final int batchSize;
+    private final Duration timeout;
+    private final ScheduledExecutorService executor;
+    private final Map<Long, PhoneQueue> queueByPhoneId = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockReservationCombiner(PhoneRepository phoneRepository, PlatformTransactionManager transactionManager,
+                                    @Value("${phone-store.flash-sale.enabled:false}") boolean enabled,
+                                    @Value("${phone-store.flash-sale.window:PT0.002S}") Duration window,
+                                    @Value("${phone-store.flash-sale.batch-size:100}") int batchSize,
+                                    @Value("${phone-store.flash-sale.threads:4}") int threads,
+                                    @Value("${phone-store.flash-sale.timeout:PT5S}") Duration timeout) {
+        this.phoneRepository = phoneRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.window = window;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        this.executor = enabled ? Executors.newScheduledThreadPool(threads) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Completes with true when the quantity was reserved and with false when the phone is sold out
+    public CompletableFuture<Boolean> submit(Long phoneId, Long quantity) {
+        PhoneQueue queue = queueByPhoneId.computeIfAbsent(phoneId, id -> new PhoneQueue());
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        queue.pending.add(new Reservation(quantity, result));
+        if(queue.size.incrementAndGet() % batchSize == 0) {
+            executor.execute(() -> flush(phoneId, queue));
+        } else if(queue.flushScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> flush(phoneId, queue), window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    // Waits for a submitted reservation. A reservation that is given up on after the timeout is skipped by
+    // its batch, or given back if the batch has already reserved it.
+    public boolean await(CompletableFuture<Boolean> reservation) {
+        try {
+            return reservation.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if(reservation.cancel(false)) throw new ApiException("Stock reservation timed out, try again later", HttpStatus.SERVICE_UNAVAILABLE);
+            return reservation.join();
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Stock reservation was interrupted", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // Gives back reserved stock, in a transaction of its own. The phones are locked in id order, like
+    // InventoryService.reserveStock and the hold sweeper lock them.
+    public void release(Map<Long, Long> quantityByPhoneId) {
+        transactionTemplate.executeWithoutResult(status ->
+                new TreeMap<>(quantityByPhoneId).forEach(phoneRepository::incrementQuantity));
+    }
+
+    private void flush(Long phoneId, PhoneQueue queue) {
+        queue.flushScheduled.set(false);
+        queue.lock.lock();
+        try {
+            List<Reservation> batch = new ArrayList<>();
+            Reservation reservation;
+            while(batch.size() < batchSize && (reservation = queue.pending.poll()) != null) {
+                queue.size.decrementAndGet();
+                // callers that timed out have cancelled theirs
+                if(!reservation.result().isDone()) batch.add(reservation);
+            }
+            if(!batch.isEmpty()) apply(phoneId, batch);
+        } catch (RuntimeException e) {
+            log.error("Stock reservations of phone {} could not be applied", phoneId, e);
+        } finally {
+            queue.lock.unlock();
+        }
+        if(!queue.pending.isEmpty() && queue.flushScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> flush(phoneId, queue));
+        }
+    }
+
+    private void apply(Long phoneId, List<Reservation> batch) {
+        boolean[] granted = new boolean[batch.size()];
+        Boolean found;
+        try {
+            found = transactionTemplate.execute(status -> {
+                PhoneEntity phone = phoneRepository.findForUpdateById(phoneId).orElse(null);
+                if(phone == null) return false;
+                long remaining = phone.getQuantity();
+                for(int i = 0; i < batch.size(); i++) {
+                    Long quantity = batch.get(i).quantity();
+                    if(quantity <= remaining) {
+                        remaining -= quantity;
+                        granted[i] = true;
+                    }
+                }
+                long reserved = phone.getQuantity() - remaining;
+                if(reserved > 0) phoneRepository.decrementQuantity(phoneId, reserved);
+                return true;
+            });
+        } catch (RuntimeException e) {
+            batch.forEach(reservation -> reservation.result().completeExceptionally(e));
+            throw e;
+        }
+        if(!Boolean.TRUE.equals(found)) {
+            ApiException notFound = new ApiException("Phones with id [" + phoneId + "] does not exist", HttpStatus.NOT_FOUND);
+            batch.forEach(reservation -> reservation.result().completeExceptionally(notFound));
+            return;
+        }
+        long unclaimed = 0;
+        for(int i = 0; i < batch.size(); i++) {
+            Reservation reservation = batch.get(i);
+            // a caller that timed out after the batch was applied no longer wants its stock
+            if(!reservation.result().complete(granted[i]) && granted[i]) unclaimed += reservation.quantity();
+        }
+        if(unclaimed > 0) release(Map.of(phoneId, unclaimed));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if(executor != null) executor.shutdown();
+    }
+
+    private record Reservation(Long quantity, CompletableFuture<Boolean> result) {
+    }
+
+    private static class PhoneQueue {
+        private final Queue<Reservation> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private final ReentrantLock lock = new ReentrantLock();
+    }
+}
@@ -0,0 +1,60 @@
+package com.glenneligio.phonestore.service;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+// Time up to which the tokens of a user are no longer accepted. It is stored in the tokens_revoked_at
+// column of the user, so a revocation on one node is seen by all of them. Each node keeps the times it
+// read for the ttl, a revocation made on another node is therefore accepted for at most the ttl. A user
+// that no longer exists has all of its tokens revoked.
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final Cache<String, Long> revokedAtByUsername;
+
+    @Autowired
+    public TokenRevocationList(UserRepository userRepository,
+                               @Value("${phone-store.security.revocation-cache.ttl:PT30S}") Duration ttl,
+                               @Value("${phone-store.security.revocation-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.revokedAtByUsername = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    // Sets the revocation time on the user, it is stored when the caller saves the user
+    public void revoke(UserEntity userEntity) {
+        log.debug("Revoking tokens of {}", userEntity.getUsername());
+        // The issued at claim only has seconds, the revocation time is rounded up to the next second so
+        // that a token issued in the same second as the revocation is rejected too
+        long revokedAt = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        userEntity.setTokensRevokedAt(revokedAt);
+        revokedAtByUsername.put(userEntity.getUsername(), revokedAt);
+    }
+
+    public boolean isRevoked(String username, Date issuedAt) {
+        long revokedAt = revokedAtByUsername.get(username, this::loadRevokedAt);
+        if(revokedAt == 0L) return false;
+        return issuedAt == null || issuedAt.getTime() < revokedAt;
+    }
+
+    public long size() {
+        return revokedAtByUsername.estimatedSize();
+    }
+
+    private long loadRevokedAt(String username) {
+        return userRepository.findTokensRevokedAtByUsername(username).orElse(Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.glenneligio.phonestore.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Bounded cache of the principals of authenticated requests so that a request with a jwt does not
+// need a user lookup in the database. Entries expire after the ttl and are evicted when the user is
+// updated or deleted.
+@Component
+@Slf4j
+public class UserDetailsCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    @Autowired
+    public UserDetailsCache(@Value("${phone-store.security.principal-cache.ttl:PT5M}") Duration ttl,
+                            @Value("${phone-store.security.principal-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        log.debug("Evicting cached user details of {}", username);
+        cache.invalidate(username);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
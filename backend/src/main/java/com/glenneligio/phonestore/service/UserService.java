@@ -5,7 +5,7 @@ import com.glenneligio.phonestore.entity.UserEntity;
 import com.glenneligio.phonestore.enums.UserType;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.repository.UserRepository;
-import lombok.extern.slf4j.Slf4j;
+import com.glenneligio.phonestore.util.StoreMetrics;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -15,119 +15,143 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
-@Slf4j
 public class UserService implements UserDetailsService {
-    public static final String ENTERING_METHOD = "Entering method {}";
-    public static final String EXITING_METHOD = "Exiting method {}";
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final StoreMetrics storeMetrics;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache,
+                       TokenRevocationList tokenRevocationList, StoreMetrics storeMetrics) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.storeMetrics = storeMetrics;
     }
 
+    @Transactional(readOnly = true)
     public List<UserEntity> getAllUsers() {
-        final String METHOD_NAME = "getAllUsers";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         List<UserEntity> userEntityList = userRepository.findAll();
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userEntityList;
     }
 
+    @Transactional(readOnly = true)
     public UserEntity getUserById(Long id) {
-        final String METHOD_NAME = "getUserById";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         UserEntity userEntity = userRepository.findById(id)
                 .orElseThrow(() -> new ApiException("No user with id " + id + " exist", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userEntity;
     }
 
+    @Transactional(readOnly = true)
     public UserEntity getUserByUsername(String username) {
-        final String METHOD_NAME = "getUserByUsername";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         UserEntity userEntity = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ApiException("No user with username " + username + " exist", HttpStatus.NOT_FOUND));
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userEntity;
     }
 
     public UserEntity createUser(UserEntity userEntity) {
-        final String METHOD_NAME = "createUser";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         Optional<UserEntity> userEntityOptional = userRepository.findByUsername(userEntity.getUsername());
         if(userEntityOptional.isPresent()) throw new ApiException("User with username " + userEntity.getUsername() + " already exist", HttpStatus.BAD_REQUEST);
         userEntity.setPassword(passwordEncoder.encode(userEntity.getPassword()));
         userEntity.setIsActive(true);
         UserEntity userCreated = userRepository.save(userEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userCreated;
     }
 
     public UserEntity updateUser(String username, UserEntity userEntity) {
-        final String METHOD_NAME = "updateUser";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         UserEntity userEntity1 = getUserByUsername(username);
+        // Tokens carry the user type and active flag, they are revoked when either changes
+        boolean revokeTokens = userEntity1.getUserType() != userEntity.getUserType()
+                || !Objects.equals(userEntity1.getIsActive(), userEntity.getIsActive());
         userEntity1.setUserType(userEntity.getUserType());
         userEntity1.setEmail(userEntity.getEmail());
         userEntity1.setIsActive(userEntity.getIsActive());
         userEntity1.setFullName(userEntity.getFullName());
         userEntity1.setUsername(username);
-        userEntity1.setPassword(passwordEncoder.encode(userEntity1.getPassword()));
-        log.info(userEntity1.toString());
+        // The stored password is already hashed and is kept as is, a new password is set with patchUser
+        if(revokeTokens) tokenRevocationList.revoke(userEntity1);
         UserEntity userUpdated = userRepository.save(userEntity1);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        userDetailsCache.evict(username);
         return userUpdated;
     }
 
+    // Changes only the fields that are not null in the given user. The password of the given user is
+    // plain text and is only hashed when it is present.
+    public UserEntity patchUser(String username, UserEntity userEntity) {
+        UserEntity userEntity1 = getUserByUsername(username);
+        boolean revokeTokens = false;
+        if(userEntity.getUserType() != null && userEntity.getUserType() != userEntity1.getUserType()) {
+            userEntity1.setUserType(userEntity.getUserType());
+            revokeTokens = true;
+        }
+        if(userEntity.getIsActive() != null && !userEntity.getIsActive().equals(userEntity1.getIsActive())) {
+            userEntity1.setIsActive(userEntity.getIsActive());
+            revokeTokens = true;
+        }
+        if(userEntity.getEmail() != null) userEntity1.setEmail(userEntity.getEmail());
+        if(userEntity.getFullName() != null) userEntity1.setFullName(userEntity.getFullName());
+        if(userEntity.getPassword() != null) {
+            userEntity1.setPassword(passwordEncoder.encode(userEntity.getPassword()));
+            revokeTokens = true;
+        }
+        if(revokeTokens) tokenRevocationList.revoke(userEntity1);
+        UserEntity userPatched = userRepository.save(userEntity1);
+        userDetailsCache.evict(username);
+        return userPatched;
+    }
+
     public void deleteUser(String username) {
-        final String METHOD_NAME = "deleteUser";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         UserEntity userEntity = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ApiException("No user with username " + username + " exist", HttpStatus.NOT_FOUND));
+        // The revocation time is not stored with a deleted user, a user that does not exist has no valid tokens
+        tokenRevocationList.revoke(userEntity);
         userRepository.delete(userEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
+        userDetailsCache.evict(username);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        final String METHOD_NAME = "laodUserByUsername";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         UserEntity userEntity = getUserByUsername(username);
         XUserDetails userDetails = new XUserDetails(userEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userDetails;
     }
 
+    // Not transactional: the user is read in the read-only transaction of the repository, and the password is
+    // checked after it has ended, so a login does not hold a connection while it waits for the password encoder
     public UserEntity login(String username, String password) {
-        final String METHOD_NAME = "login";
-        log.info(ENTERING_METHOD, METHOD_NAME);
-        UserEntity userEntity = getUserByUsername(username);
-        // Check if the password in login and the encrypted password in database matches
-        boolean match = passwordEncoder.matches(password, userEntity.getPassword());
-        if(!match) throw new ApiException("Invalid credentials", HttpStatus.UNAUTHORIZED);
-        log.info(EXITING_METHOD, METHOD_NAME);
-        return userEntity;
+        try {
+            UserEntity userEntity = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new ApiException("No user with username " + username + " exist", HttpStatus.NOT_FOUND));
+            // Check if the password in login and the encrypted password in database matches
+            boolean match = passwordEncoder.matches(password, userEntity.getPassword());
+            if(!match) throw new ApiException("Invalid credentials", HttpStatus.UNAUTHORIZED);
+            storeMetrics.loginSucceeded();
+            return userEntity;
+        } catch (ApiException e) {
+            storeMetrics.loginFailed();
+            throw e;
+        }
     }
 
     public UserEntity register (UserEntity userEntity) {
-        final String METHOD_NAME = "register";
-        log.info(ENTERING_METHOD, METHOD_NAME);
         Optional<UserEntity> existingUserEntity = userRepository.findByUsername(userEntity.getUsername());
         if(existingUserEntity.isPresent()) throw new ApiException("User with same username", HttpStatus.BAD_REQUEST);
         userEntity.setPassword(passwordEncoder.encode(userEntity.getPassword()));
         userEntity.setUserType(UserType.CUSTOMER);
         userEntity.setIsActive(true);
         UserEntity userRegistered = userRepository.save(userEntity);
-        log.info(EXITING_METHOD, METHOD_NAME);
         return userRegistered;
     }
 }
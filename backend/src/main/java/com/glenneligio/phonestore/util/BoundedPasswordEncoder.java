@@ -0,0 +1,110 @@
+package com.glenneligio.phonestore.util;
+
+import com.glenneligio.phonestore.exception.ApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs the password hashing of the delegate on a small pool of its own so that a burst of logins cannot
+// use up the request threads and the cpu. When the pool and its queue are full the request fails
+// right away with 503 instead of waiting.
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    public static final String SERVER_BUSY_MESSAGE = "Server is busy, please try again later";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeWaitTimer, encodeHashTimer, matchesWaitTimer, matchesHashTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, Duration timeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeout = timeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = threadPoolExecutor;
+        new ExecutorServiceMetrics(threadPoolExecutor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+        this.encodeWaitTimer = queueWaitTimer("encode", meterRegistry);
+        this.encodeHashTimer = hashTimer("encode", meterRegistry);
+        this.matchesWaitTimer = queueWaitTimer("matches", meterRegistry);
+        this.matchesHashTimer = hashTimer("matches", meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeWaitTimer, encodeHashTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesWaitTimer, matchesHashTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Supplier<T> task, Timer waitTimer, Timer hashTimer) {
+        final long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.record(task);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing pool is saturated, rejecting the request");
+            throw new ApiException(SERVER_BUSY_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Password hashing did not finish in {}, rejecting the request", timeout);
+            throw new ApiException(SERVER_BUSY_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ApiException(SERVER_BUSY_MESSAGE, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static Timer queueWaitTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("phone-store.password.queue.wait")
+                .description("Time a password hashing task waits for a thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(String operation, MeterRegistry meterRegistry) {
+        return Timer.builder("phone-store.password.hash")
+                .description("Time spent hashing or verifying a password")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
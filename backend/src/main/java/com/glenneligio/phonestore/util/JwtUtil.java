@@ -1,31 +1,78 @@
 package com.glenneligio.phonestore.util;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
+import com.glenneligio.phonestore.dtos.XUserDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 
 @Service
 @Slf4j
 public class JwtUtil {
-
-    // Fetch JWT in Config props
-    @Value("${phone-store.secret-key}")
-    private String secretKey;
+    public static final String USER_TYPE_CLAIM = "type";
+    public static final String ACTIVE_CLAIM = "active";
+
+    private final String secretKey;
+    // The parser only holds the signing key, so one instance is shared by all requests
+    private final JwtParser parser;
+    // Tokens that already passed the signature check, keyed by the digest of the token and kept until they expire
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    @Autowired
+    public JwtUtil(@Value("${phone-store.secret-key}") String secretKey,
+                   @Value("${phone-store.security.verified-token-cache.max-size:10000}") long verifiedTokenCacheSize) {
+        this.secretKey = secretKey;
+        this.parser = Jwts.parser().setSigningKey(secretKey);
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        if(value.getExpiration() == null) return Long.MAX_VALUE;
+                        long millisLeft = value.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(millisLeft, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     // GENERATE JWT TOKENS
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // The user type and active flag let JwtAuthFilter authenticate the request without a user lookup
+        if(userDetails instanceof XUserDetails xUserDetails) {
+            claims.put(USER_TYPE_CLAIM, xUserDetails.getTypes()[0]);
+            claims.put(ACTIVE_CLAIM, xUserDetails.getIsActive());
+        }
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -52,32 +99,38 @@ public class JwtUtil {
                 .signWith(SignatureAlgorithm.HS256, secretKey).compact();
     }
 
-    // VALIDATE JWT TOKEN
-    public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    // VERIFY JWT TOKEN
+    // Parses and checks the signature of the token once. Throws the JwtException of the parser when the
+    // token is not valid or is expired, invalid tokens are never cached.
+    public VerifiedToken verify(String token) {
+        return verifiedTokens.get(digest(token), key -> parse(token));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private VerifiedToken parse(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return new VerifiedToken(claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(), claims);
     }
 
-    // EXTRACTING CLAIM(S)
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser().setSigningKey(secretKey).parseClaimsJws(token).getBody();
+    // VALIDATE JWT TOKEN
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return (token.getSubject().equals(userDetails.getUsername()) && !token.isExpired());
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public boolean validateToken(String token, UserDetails userDetails) {
+        return validateToken(verify(token), userDetails);
     }
 
+    // EXTRACTING CLAIM(S)
     public String extractUsername(String token) {
-        return extractClaim(token, (Claims::getSubject));
+        return verify(token).getSubject();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, (Claims::getExpiration));
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
-
 }
@@ -0,0 +1,101 @@
+package com.glenneligio.phonestore.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Counters of the store itself, next to the timers, pool, cache and hibernate metrics of the application
+@Component
+public class StoreMetrics {
+    public static final String ORDERS_PLACED = "phone-store.orders.placed";
+    public static final String STOCK_RESERVATIONS_FAILED = "phone-store.stock.reservations.failed";
+    public static final String INVENTORY_HOLDS_EXPIRED = "phone-store.inventory.holds.expired";
+    public static final String LOGINS = "phone-store.logins";
+    public static final String ERROR_RESPONSES = "phone-store.error.responses";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter ordersPlaced;
+    private final Counter reservationsFailedOutOfStock;
+    private final Counter reservationsFailedNotFound;
+    private final Counter reservationsRejectedByIndex;
+    private final Counter inventoryHoldsExpired;
+    private final Counter loginsSucceeded;
+    private final Counter loginsFailed;
+    private final Map<String, Counter> errorResponsesByExceptionAndStatus = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StoreMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.ordersPlaced = Counter.builder(ORDERS_PLACED)
+                .description("Orders placed")
+                .register(meterRegistry);
+        this.reservationsFailedOutOfStock = Counter.builder(STOCK_RESERVATIONS_FAILED)
+                .description("Stock reservations rejected, by reason")
+                .tag("reason", "out-of-stock")
+                .register(meterRegistry);
+        this.reservationsFailedNotFound = Counter.builder(STOCK_RESERVATIONS_FAILED)
+                .description("Stock reservations rejected, by reason")
+                .tag("reason", "not-found")
+                .register(meterRegistry);
+        this.reservationsRejectedByIndex = Counter.builder(STOCK_RESERVATIONS_FAILED)
+                .description("Stock reservations rejected, by reason")
+                .tag("reason", "known-sold-out")
+                .register(meterRegistry);
+        this.inventoryHoldsExpired = Counter.builder(INVENTORY_HOLDS_EXPIRED)
+                .description("Pending orders expired and their stock given back")
+                .register(meterRegistry);
+        this.loginsSucceeded = Counter.builder(LOGINS)
+                .description("Logins, by outcome")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.loginsFailed = Counter.builder(LOGINS)
+                .description("Logins, by outcome")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    public void orderPlaced() {
+        ordersPlaced.increment();
+    }
+
+    public void stockReservationOutOfStock() {
+        reservationsFailedOutOfStock.increment();
+    }
+
+    public void stockReservationNotFound() {
+        reservationsFailedNotFound.increment();
+    }
+
+    // Rejected by the availability index without going to the database
+    public void stockReservationRejectedByIndex() {
+        reservationsRejectedByIndex.increment();
+    }
+
+    public void inventoryHoldsExpired(int count) {
+        inventoryHoldsExpired.increment(count);
+    }
+
+    public void loginSucceeded() {
+        loginsSucceeded.increment();
+    }
+
+    public void loginFailed() {
+        loginsFailed.increment();
+    }
+
+    public void errorResponse(Class<? extends Exception> exceptionType, HttpStatusCode status) {
+        String exception = exceptionType.getSimpleName();
+        errorResponsesByExceptionAndStatus.computeIfAbsent(exception + ":" + status.value(), key -> Counter.builder(ERROR_RESPONSES)
+                        .description("Error responses, by exception and status")
+                        .tag("exception", exception)
+                        .tag("status", String.valueOf(status.value()))
+                        .register(meterRegistry))
+                .increment();
+    }
+}
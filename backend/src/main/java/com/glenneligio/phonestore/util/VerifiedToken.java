@@ -0,0 +1,37 @@
+package com.glenneligio.phonestore.util;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+// Result of a successful jwt verification. The signature is checked once and the
+// claims are read from here instead of parsing the token again.
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "claims")
+public class VerifiedToken {
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Claims claims;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public String getUserType() {
+        return claims.get(JwtUtil.USER_TYPE_CLAIM, String.class);
+    }
+
+    public Boolean getIsActive() {
+        return claims.get(JwtUtil.ACTIVE_CLAIM, Boolean.class);
+    }
+
+    // Tokens issued before the stateless mode do not have the user claims
+    public boolean hasUserClaims() {
+        return getUserType() != null && getIsActive() != null;
+    }
+}
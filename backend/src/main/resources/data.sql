@@ -1,11 +0,0 @@
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('Samsung', CURRENT_TIMESTAMP);
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('IPhone', CURRENT_TIMESTAMP);
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('Apple', CURRENT_TIMESTAMP);
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('Windows', CURRENT_TIMESTAMP);
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('Oppo', CURRENT_TIMESTAMP);
-INSERT INTO BRANDS (brand_name, created_at) VALUES ('Huawei', CURRENT_TIMESTAMP);
-
-INSERT INTO PHONES (description, discount, price, quantity, specification, brand_name, created_at) VALUES ('Description 1', 0.5, 100, 100, 'Specification 1', 'Samsung', CURRENT_TIMESTAMP);
-INSERT INTO PHONES (description, discount, price, quantity, specification, brand_name, created_at) VALUES ('Description 2', 0.6, 102, 102, 'Specification 2', 'Samsung', CURRENT_TIMESTAMP);
-INSERT INTO PHONES (description, discount, price, quantity, specification, brand_name, created_at) VALUES ('Description 3', 0.7, 103, 103, 'Specification 3', 'IPhone', CURRENT_TIMESTAMP);
-INSERT INTO PHONES (description, discount, price, quantity, specification, brand_name, created_at) VALUES ('Description 4', 0.8, 104, 104, 'Specification 4', 'Apple', CURRENT_TIMESTAMP);
\ No newline at end of file
@@ -0,0 +1,69 @@
+-- Schema as it was generated by Hibernate from the entities
+create sequence brands_seq start with 1 increment by 50;
+create sequence phones_seq start with 1 increment by 50;
+create sequence users_seq start with 1 increment by 50;
+create sequence orders_seq start with 1 increment by 50;
+create sequence order_items_seq start with 1 increment by 50;
+
+create table brands (
+    brand_id bigint not null,
+    brand_name varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    constraint pk_brands primary key (brand_id),
+    constraint uk_brands_brand_name unique (brand_name)
+);
+
+create table phones (
+    phone_id bigint not null,
+    price double precision,
+    quantity bigint,
+    description varchar(255),
+    specification varchar(255),
+    discount double precision,
+    effective_price double precision,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    brand_name varchar(255),
+    constraint pk_phones primary key (phone_id),
+    constraint fk_phones_brand_name foreign key (brand_name) references brands (brand_name)
+);
+create index idx_phones_price on phones (price, phone_id);
+create index idx_phones_effective_price on phones (effective_price, phone_id);
+create index idx_phones_updated_at on phones (updated_at, phone_id);
+
+create table users (
+    user_id bigint not null,
+    username varchar(255),
+    password varchar(255),
+    email varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    full_name varchar(255),
+    is_active boolean,
+    user_type varchar(255),
+    constraint pk_users primary key (user_id),
+    constraint uk_users_username unique (username)
+);
+
+create table orders (
+    order_id bigint not null,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    order_status varchar(255),
+    user_id bigint not null,
+    constraint pk_orders primary key (order_id),
+    constraint fk_orders_user_id foreign key (user_id) references users (user_id)
+);
+
+create table order_items (
+    order_item_id bigint not null,
+    phone_id bigint,
+    order_item_quantity bigint,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    order_id bigint not null,
+    constraint pk_order_items primary key (order_item_id),
+    constraint fk_order_items_phone_id foreign key (phone_id) references phones (phone_id),
+    constraint fk_order_items_order_id foreign key (order_id) references orders (order_id)
+);
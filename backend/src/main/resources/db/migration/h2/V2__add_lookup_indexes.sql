@@ -0,0 +1,6 @@
+-- Indexes behind findByUserUsername, findByBrandName, the order item joins and the newest orders first
+create index idx_orders_user_id on orders (user_id);
+create index idx_orders_created_at on orders (created_at);
+create index idx_order_items_order_id on order_items (order_id);
+create index idx_order_items_phone_id on order_items (phone_id);
+create index idx_phones_brand_name on phones (brand_name, phone_id);
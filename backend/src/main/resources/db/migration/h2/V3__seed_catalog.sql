@@ -0,0 +1,12 @@
+-- Catalog the store starts with, it was loaded from data.sql before
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'Samsung', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'IPhone', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'Apple', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'Windows', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'Oppo', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (next value for brands_seq, 'Huawei', current_timestamp);
+
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (next value for phones_seq, 'Description 1', 0.5, 100, 100 * (1 - 0.5), 100, 'Specification 1', 'Samsung', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (next value for phones_seq, 'Description 2', 0.6, 102, 102 * (1 - 0.6), 102, 'Specification 2', 'Samsung', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (next value for phones_seq, 'Description 3', 0.7, 103, 103 * (1 - 0.7), 103, 'Specification 3', 'IPhone', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (next value for phones_seq, 'Description 4', 0.8, 104, 104 * (1 - 0.8), 104, 'Specification 4', 'Apple', current_timestamp, current_timestamp);
@@ -0,0 +1,14 @@
+-- The stock of a pending order is held until its hold expires. The holds are read in expiry order
+-- by the sweeper. Orders that were already pending get no hold and keep their stock as before.
+create sequence inventory_holds_seq start with 1 increment by 50;
+
+create table inventory_holds (
+    hold_id bigint not null,
+    order_id bigint not null,
+    expires_at timestamp(6) not null,
+    created_at timestamp(6),
+    constraint pk_inventory_holds primary key (hold_id),
+    constraint uk_inventory_holds_order_id unique (order_id),
+    constraint fk_inventory_holds_order_id foreign key (order_id) references orders (order_id)
+);
+create index idx_inventory_holds_expires_at on inventory_holds (expires_at, hold_id);
@@ -0,0 +1,16 @@
+-- Catalog the store starts with, it was loaded from data.sql before. The ids are given here and the
+-- pooled ids of Hibernate start after them.
+insert into brands (brand_id, brand_name, created_at) values (1, 'Samsung', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (2, 'IPhone', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (3, 'Apple', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (4, 'Windows', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (5, 'Oppo', current_timestamp);
+insert into brands (brand_id, brand_name, created_at) values (6, 'Huawei', current_timestamp);
+
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (1, 'Description 1', 0.5, 100, 100 * (1 - 0.5), 100, 'Specification 1', 'Samsung', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (2, 'Description 2', 0.6, 102, 102 * (1 - 0.6), 102, 'Specification 2', 'Samsung', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (3, 'Description 3', 0.7, 103, 103 * (1 - 0.7), 103, 'Specification 3', 'IPhone', current_timestamp, current_timestamp);
+insert into phones (phone_id, description, discount, price, effective_price, quantity, specification, brand_name, created_at, updated_at) values (4, 'Description 4', 0.8, 104, 104 * (1 - 0.8), 104, 'Specification 4', 'Apple', current_timestamp, current_timestamp);
+
+update brands_seq set next_val = 101;
+update phones_seq set next_val = 101;
@@ -0,0 +1,10 @@
+-- Phones reference their brand by brand_id instead of brand_name
+alter table phones add column brand_id bigint;
+update phones p join brands b on b.brand_name = p.brand_name set p.brand_id = b.brand_id;
+alter table phones modify brand_id bigint not null;
+alter table phones add constraint fk_phones_brand_id foreign key (brand_id) references brands (brand_id);
+create index idx_phones_brand_id on phones (brand_id, phone_id);
+
+alter table phones drop foreign key fk_phones_brand_name;
+drop index idx_phones_brand_name on phones;
+alter table phones drop column brand_name;
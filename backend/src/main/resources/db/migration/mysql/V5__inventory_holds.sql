@@ -0,0 +1,15 @@
+-- The stock of a pending order is held until its hold expires. The holds are read in expiry order
+-- by the sweeper. Orders that were already pending get no hold and keep their stock as before.
+create table inventory_holds_seq (next_val bigint) engine=InnoDB;
+insert into inventory_holds_seq values (1);
+
+create table inventory_holds (
+    hold_id bigint not null,
+    order_id bigint not null,
+    expires_at datetime(6) not null,
+    created_at datetime(6),
+    constraint pk_inventory_holds primary key (hold_id),
+    constraint uk_inventory_holds_order_id unique (order_id),
+    constraint fk_inventory_holds_order_id foreign key (order_id) references orders (order_id)
+) engine=InnoDB;
+create index idx_inventory_holds_expires_at on inventory_holds (expires_at, hold_id);
@@ -0,0 +1,3 @@
+-- Tokens of a user issued before tokens_revoked_at (epoch millis) are rejected. The time is kept with the
+-- user so that every node sees the revocations, see TokenRevocationList.
+alter table users add column tokens_revoked_at bigint;
@@ -0,0 +1,71 @@
+package com.glenneligio.phonestore.aspects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.BrandRepository;
+import com.glenneligio.phonestore.service.BrandService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+public class MethodTimingAspectTest {
+
+    @Mock
+    private BrandRepository brandRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BrandService brandService;
+
+    @BeforeEach
+    void setupEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new BrandService(brandRepository, new ModelMapper(), eventPublisher));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MethodTimingAspect(meterRegistry, 0));
+        brandService = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Calling a service method records its duration in the success timer of the method")
+    void time_methodReturns_recordsSuccessTimer() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.of(BrandEntity.builder().id(1L).name("BrandName1").build()));
+
+        brandService.getBrandById(1L);
+        brandService.getBrandById(1L);
+
+        Timer timer = meterRegistry.get(MethodTimingAspect.METRIC_NAME)
+                .tags("class", "BrandService", "method", "getBrandById", "outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+        assertNull(meterRegistry.find(MethodTimingAspect.METRIC_NAME).tags("outcome", "error").timer());
+    }
+
+    @Test
+    @DisplayName("Calling a service method that throws records its duration in the error timer and rethrows")
+    void time_methodThrows_recordsErrorTimer() {
+        when(brandRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class, () -> brandService.getBrandById(1L));
+
+        Timer timer = meterRegistry.get(MethodTimingAspect.METRIC_NAME)
+                .tags("class", "BrandService", "method", "getBrandById", "outcome", "error")
+                .timer();
+        assertEquals(1, timer.count());
+    }
+}
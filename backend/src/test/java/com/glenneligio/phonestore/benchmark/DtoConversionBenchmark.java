@@ -0,0 +1,123 @@
+package com.glenneligio.phonestore.benchmark;
+
+import com.glenneligio.phonestore.dtos.BrandDto;
+import com.glenneligio.phonestore.dtos.OrderDto;
+import com.glenneligio.phonestore.dtos.OrderItemDto;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.entity.OrderItemEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the hand written DTO converters with the previous converters that built a new ModelMapper
+// on every call. Run the main method from the IDE or with the test classpath, e.g.
+// mvn test-compile exec:java -Dexec.mainClass=com.glenneligio.phonestore.benchmark.DtoConversionBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    @Param({"1", "10"})
+    private int orderItemCount;
+
+    private PhoneEntity phone;
+    private OrderEntity order;
+
+    @Setup
+    public void setup() {
+        BrandEntity brand = BrandEntity.builder().id(1L).name("BrandName1")
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        phone = PhoneEntity.builder().id(1L).price(1000.0).quantity(10L).description("Description")
+                .specification("Specification").discount(0.1).effectivePrice(900.0).brand(brand)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        List<OrderItemEntity> orderItems = new ArrayList<>();
+        for(long i = 1; i <= orderItemCount; i++) {
+            orderItems.add(OrderItemEntity.builder().id(i).phone(phone).quantity(i)
+                    .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+        }
+        order = OrderEntity.builder().id(1L).status(OrderStatus.PENDING).orderItems(orderItems)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+    }
+
+    @Benchmark
+    public PhoneDto phoneToDto() {
+        return PhoneDto.convertToDto(phone);
+    }
+
+    @Benchmark
+    public PhoneDto phoneToDtoModelMapper() {
+        return LegacyConverters.convertPhoneToDto(phone);
+    }
+
+    @Benchmark
+    public OrderDto orderToDto() {
+        return OrderDto.convertToDto(order);
+    }
+
+    @Benchmark
+    public OrderDto orderToDtoModelMapper() {
+        return LegacyConverters.convertOrderToDto(order);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DtoConversionBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    // The converters as they were before, kept here as the baseline of the benchmark
+    static class LegacyConverters {
+
+        static BrandDto convertBrandToDto(BrandEntity entity) {
+            BrandDto dto = new BrandDto();
+            ModelMapper mapper = new ModelMapper();
+            mapper.getConfiguration().setSkipNullEnabled(true);
+            mapper.map(entity, dto);
+            return dto;
+        }
+
+        static PhoneDto convertPhoneToDto(PhoneEntity entity) {
+            PhoneDto dto = new PhoneDto();
+            ModelMapper mapper = new ModelMapper();
+            mapper.getConfiguration().setSkipNullEnabled(true);
+            mapper.map(entity, dto);
+            dto.setBrand(convertBrandToDto(entity.getBrand()));
+            return dto;
+        }
+
+        static OrderItemDto convertOrderItemToDto(OrderItemEntity entity) {
+            OrderItemDto dto = new OrderItemDto();
+            ModelMapper mapper = new ModelMapper();
+            mapper.getConfiguration().setSkipNullEnabled(true);
+            mapper.map(entity, dto);
+            dto.setPhone(convertPhoneToDto(entity.getPhone()));
+            return dto;
+        }
+
+        static OrderDto convertOrderToDto(OrderEntity entity) {
+            OrderDto dto = new OrderDto();
+            ModelMapper mapper = new ModelMapper();
+            mapper.getConfiguration().setSkipNullEnabled(true);
+            mapper.map(entity, dto);
+            dto.setOrderItems(entity.getOrderItems().stream().map(LegacyConverters::convertOrderItemToDto).toList());
+            dto.setStatus(entity.getStatus().getType());
+            return dto;
+        }
+    }
+}
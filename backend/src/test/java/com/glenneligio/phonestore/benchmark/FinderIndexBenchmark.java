@@ -0,0 +1,122 @@
+package com.glenneligio.phonestore.benchmark;
+
+import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.repository.OrderRepository;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of the order and phone finders on a large data set, with the lookup indexes of the migrations
+// and without them. Without them the foreign keys are dropped as well, because H2 and MySQL keep an index
+// of their own for every foreign key. Loading one million orders takes a while and needs a large heap.
+// mvn test-compile exec:java -Dexec.mainClass=com.glenneligio.phonestore.benchmark.FinderIndexBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class FinderIndexBenchmark {
+    private static final int USER_COUNT = 10_000;
+    private static final int BRAND_COUNT = 50;
+    private static final int PHONE_COUNT = 1_000;
+    // Above the ids of the seeded catalog
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    @Param({"1000000"})
+    private int orderCount;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private PhoneRepository phoneRepository;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(JpaBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:finderbenchdb",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+        orderRepository = context.getBean(OrderRepository.class);
+        phoneRepository = context.getBean(PhoneRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        jdbcTemplate.update("insert into brands (brand_id, brand_name, created_at, updated_at) " +
+                "select ? + x, 'Brand ' || x, current_timestamp, current_timestamp from system_range(1, ?)", ID_OFFSET, BRAND_COUNT);
+        jdbcTemplate.update("insert into phones (phone_id, price, quantity, description, specification, discount, effective_price, " +
+                "created_at, updated_at, brand_id) " +
+                "select ? + x, 100 + x, 1000, 'Description ' || x, 'Specification ' || x, 0.1, (100 + x) * 0.9, " +
+                "current_timestamp, current_timestamp, ? + mod(x, ?) + 1 from system_range(1, ?)", ID_OFFSET, ID_OFFSET, BRAND_COUNT, PHONE_COUNT);
+        jdbcTemplate.update("insert into users (user_id, username, password, email, created_at, updated_at, full_name, is_active, user_type) " +
+                "select ? + x, 'user' || x, 'Password1', 'user' || x || '@email.com', current_timestamp, current_timestamp, " +
+                "'User ' || x, true, 'CUSTOMER' from system_range(1, ?)", ID_OFFSET, USER_COUNT);
+        jdbcTemplate.update("insert into orders (order_id, created_at, updated_at, order_status, user_id) " +
+                "select ? + x, dateadd('SECOND', -x, current_timestamp), current_timestamp, 'PENDING', ? + mod(x, ?) + 1 " +
+                "from system_range(1, ?)", ID_OFFSET, ID_OFFSET, USER_COUNT, orderCount);
+        jdbcTemplate.update("insert into order_items (order_item_id, phone_id, order_item_quantity, created_at, updated_at, order_id) " +
+                "select ? + x, ? + mod(x, ?) + 1, 1, current_timestamp, current_timestamp, ? + x from system_range(1, ?)",
+                ID_OFFSET, ID_OFFSET, PHONE_COUNT, ID_OFFSET, orderCount);
+
+        if(!indexed) {
+            for(String statement : List.of(
+                    "alter table orders drop constraint fk_orders_user_id",
+                    "alter table order_items drop constraint fk_order_items_order_id",
+                    "alter table order_items drop constraint fk_order_items_phone_id",
+                    "alter table phones drop constraint fk_phones_brand_id",
+                    "drop index idx_orders_user_id",
+                    "drop index idx_orders_created_at",
+                    "drop index idx_order_items_order_id",
+                    "drop index idx_order_items_phone_id",
+                    "drop index idx_phones_brand_id")) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderEntity> findByUserUsername() {
+        return orderRepository.findByUserUsername("user" + (ThreadLocalRandom.current().nextInt(USER_COUNT) + 1));
+    }
+
+    @Benchmark
+    public Optional<OrderEntity> findWithItemsById() {
+        return orderRepository.findWithItemsById(ID_OFFSET + ThreadLocalRandom.current().nextInt(orderCount) + 1);
+    }
+
+    @Benchmark
+    public List<PhoneEntity> findByBrandName() {
+        return phoneRepository.findByBrandName("Brand " + (ThreadLocalRandom.current().nextInt(BRAND_COUNT) + 1));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FinderIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
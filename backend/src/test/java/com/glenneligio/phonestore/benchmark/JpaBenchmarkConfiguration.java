@@ -0,0 +1,15 @@
+package com.glenneligio.phonestore.benchmark;
+
+import com.glenneligio.phonestore.entity.OrderEntity;
+import com.glenneligio.phonestore.repository.OrderRepository;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// Only the entities, repositories and the auto configuration, without the web and security setup.
+// Not a @Configuration so that the component scan of the tests does not pick it up.
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = OrderEntity.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+class JpaBenchmarkConfiguration {
+}
@@ -0,0 +1,80 @@
+package com.glenneligio.phonestore.benchmark;
+
+import com.glenneligio.phonestore.dtos.XUserDetails;
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import com.glenneligio.phonestore.util.JwtUtil;
+import com.glenneligio.phonestore.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Measures the jwt work that JwtAuthFilter does per request: the previous three parses of the token,
+// a single parse without the cache, and a single verification served from the verified-token cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET_KEY = "samplesecretkey";
+
+    private JwtUtil jwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private XUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET_KEY, 10000);
+        uncachedJwtUtil = new JwtUtil(SECRET_KEY, 0);
+        userDetails = new XUserDetails(UserEntity.builder()
+                .username("Username1")
+                .password("Password1")
+                .isActive(true)
+                .userType(UserType.CUSTOMER)
+                .build());
+        token = jwtUtil.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean parseThreeTimes() {
+        // extractUsername in the filter, then extractUsername and extractExpiration in validateToken
+        String username = parseClaims(token).getSubject();
+        boolean sameUser = parseClaims(token).getSubject().equals(userDetails.getUsername());
+        boolean expired = parseClaims(token).getExpiration().before(new Date());
+        return username != null && sameUser && !expired;
+    }
+
+    @Benchmark
+    public boolean verifyOnce() {
+        VerifiedToken verifiedToken = uncachedJwtUtil.verify(token);
+        return uncachedJwtUtil.validateToken(verifiedToken, userDetails);
+    }
+
+    @Benchmark
+    public boolean verifyCached() {
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+        return jwtUtil.validateToken(verifiedToken, userDetails);
+    }
+
+    private Claims parseClaims(String token) {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(token).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.glenneligio.phonestore.benchmark;
+
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import com.glenneligio.phonestore.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Orders with their items saved per second, with and without jdbc batching. Only the jpa part of the
+// application is started, the schema is created by the flyway migrations. The second url runs H2 in MySQL mode, a real MySQL can be given on the command
+// line, e.g. -p url=jdbc:mysql://localhost:3306/benchdb?rewriteBatchedStatements=true (use a scratch database,
+// with the credentials in SPRING_DATASOURCE_USERNAME and SPRING_DATASOURCE_PASSWORD).
+// For the numbers with identity ids run the same benchmark on the commit before the pooled sequences.
+// mvn test-compile exec:java -Dexec.mainClass=com.glenneligio.phonestore.benchmark.OrderInsertBenchmark -Dexec.classpathScope=test
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    @Param({"jdbc:h2:mem:benchdb", "jdbc:h2:mem:benchdb;MODE=MySQL;DATABASE_TO_LOWER=TRUE"})
+    private String url;
+
+    // 0 turns jdbc batching off
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"20"})
+    private int orderLineCount;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private UserEntity user;
+    private List<PhoneEntity> phones;
+
+    @Setup
+    public void setup() {
+        boolean mysql = url.startsWith("jdbc:mysql");
+        context = new SpringApplicationBuilder(JpaBenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.driverClassName=" + (mysql ? "com.mysql.cj.jdbc.Driver" : "org.h2.Driver"),
+                        "--spring.jpa.database-platform=" + (mysql ? "org.hibernate.dialect.MySQLDialect" : "org.hibernate.dialect.H2Dialect"),
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=warn");
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+            BrandEntity brand = BrandEntity.builder().name("Benchmark Brand " + System.nanoTime()).build();
+            entityManager.persist(brand);
+            phones = new ArrayList<>();
+            for(int i = 0; i < orderLineCount; i++) {
+                PhoneEntity phone = PhoneEntity.builder().brand(brand).price(100.0 + i).discount(0.1)
+                        .quantity(1_000_000L).description("Description " + i).specification("Specification " + i).build();
+                entityManager.persist(phone);
+                phones.add(phone);
+            }
+            user = UserEntity.builder().username("benchmark" + System.nanoTime()).password("Password1")
+                    .email("benchmark@email.com").fullName("Benchmark").isActive(true).userType(UserType.CUSTOMER).build();
+            entityManager.persist(user);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderEntity createOrder() {
+        return transactionTemplate.execute(status -> {
+            OrderEntity order = OrderEntity.builder()
+                    .status(OrderStatus.PENDING)
+                    .user(user)
+                    .orderItems(new ArrayList<>())
+                    .build();
+            for(PhoneEntity phone : phones) {
+                order.getOrderItems().add(OrderItemEntity.builder().phone(phone).quantity(1L).order(order).build());
+            }
+            return orderRepository.save(order);
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
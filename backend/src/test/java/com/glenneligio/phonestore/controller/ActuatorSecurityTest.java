@@ -0,0 +1,66 @@
+package com.glenneligio.phonestore.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.glenneligio.phonestore.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,metrics")
+public class ActuatorSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setup() {
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Health check without authentication returns 200 OK")
+    void health_withoutAuthentication_returns200OK() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Metrics without authentication returns 403 FORBIDDEN")
+    void metrics_withoutAuthentication_returns403Forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Metrics as customer returns 403 FORBIDDEN")
+    void metrics_asCustomer_returns403Forbidden() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")
+                .with(user("Customer").authorities(() -> UserType.CUSTOMER.getType())))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("Metrics as admin returns 200 OK")
+    void metrics_asAdmin_returns200OK() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")
+                .with(user("Admin").authorities(() -> UserType.ADMIN.getType())))
+                .andExpect(status().isOk());
+    }
+}
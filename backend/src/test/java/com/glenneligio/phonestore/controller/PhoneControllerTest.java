@@ -0,0 +1,97 @@
+package com.glenneligio.phonestore.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.service.PhoneService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class PhoneControllerTest {
+
+    private static final String BASE_PHONE_URI = "/api/v1/phones";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PhoneService phoneService;
+
+    private PhoneEntity p1;
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    public void setup() {
+        p1 = PhoneEntity.builder()
+                .id(1L)
+                .brand(BrandEntity.builder().id(1L).name("BrandName1").build())
+                .price(100.0)
+                .discount(0.1)
+                .quantity(10L)
+                .description("Description 1")
+                .specification("Specification 1")
+                .build();
+        mapper = new ObjectMapper();
+        mapper.findAndRegisterModules();
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Update phone using zero quantity returns 200 OK with the sold out Phone")
+    void updatePhone_usingZeroQuantity_returns200OK() throws Exception {
+        var validId = p1.getId();
+        var requestBody = PhoneDto.convertToDto(p1);
+        requestBody.setQuantity(0L);
+        var requestJson = mapper.writeValueAsString(requestBody);
+        var updatedPhoneEntity = PhoneDto.convertToEntity(requestBody);
+        var responseJson = mapper.writeValueAsString(PhoneDto.convertToDto(updatedPhoneEntity));
+        when(phoneService.updatePhone(eq(validId), argThat(phone -> phone.getQuantity() == 0L))).thenReturn(updatedPhoneEntity);
+
+        mockMvc.perform(put(BASE_PHONE_URI + "/" + validId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(content().json(responseJson));
+    }
+
+    @Test
+    @DisplayName("Update phone using negative quantity returns 400 BAD REQUEST")
+    void updatePhone_usingNegativeQuantity_returns400BadRequest() throws Exception {
+        var validId = p1.getId();
+        var requestBody = PhoneDto.convertToDto(p1);
+        requestBody.setQuantity(-1L);
+        var requestJson = mapper.writeValueAsString(requestBody);
+
+        mockMvc.perform(put(BASE_PHONE_URI + "/" + validId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson))
+                .andExpect(status().isBadRequest());
+        verify(phoneService, never()).updatePhone(anyLong(), any(PhoneEntity.class));
+    }
+}
@@ -0,0 +1,91 @@
+package com.glenneligio.phonestore.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import com.glenneligio.phonestore.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+public class UserControllerTest {
+
+    private static final String BASE_USER_URI = "/api/v1/users";
+    private static final String PATCH_JSON = "{\"userType\":\"ADMIN\"}";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    private UserEntity u1;
+
+    @BeforeEach
+    public void setup() {
+        u1 = UserEntity.builder()
+                .id(1L)
+                .username("Username1")
+                .fullName("Fullname1")
+                .email("Email1@gmail.com")
+                .userType(UserType.ADMIN)
+                .isActive(true)
+                .build();
+        mockMvc = MockMvcBuilders
+                .webAppContextSetup(context)
+                .apply(springSecurity())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Patch user without authentication returns 403 FORBIDDEN")
+    void patchUser_withoutAuthentication_returns403Forbidden() throws Exception {
+        mockMvc.perform(patch(BASE_USER_URI + "/" + u1.getUsername())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PATCH_JSON))
+                .andExpect(status().isForbidden());
+        verify(userService, never()).patchUser(any(), any());
+    }
+
+    @Test
+    @DisplayName("Patch user as customer returns 403 FORBIDDEN")
+    void patchUser_asCustomer_returns403Forbidden() throws Exception {
+        mockMvc.perform(patch(BASE_USER_URI + "/" + u1.getUsername())
+                .with(user(u1.getUsername()).authorities(() -> UserType.CUSTOMER.getType()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PATCH_JSON))
+                .andExpect(status().isForbidden());
+        verify(userService, never()).patchUser(any(), any());
+    }
+
+    @Test
+    @DisplayName("Patch user as admin returns 200 OK with patched user")
+    void patchUser_asAdmin_returns200OK() throws Exception {
+        when(userService.patchUser(eq(u1.getUsername()), any(UserEntity.class))).thenReturn(u1);
+
+        mockMvc.perform(patch(BASE_USER_URI + "/" + u1.getUsername())
+                .with(user("Admin").authorities(() -> UserType.ADMIN.getType()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PATCH_JSON))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,123 @@
+package com.glenneligio.phonestore.dtos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The converters copy the fields by hand, these tests check that they give the same result as ModelMapper
+public class DtoConversionTest {
+
+    private ModelMapper mapper;
+    private BrandEntity brand;
+    private PhoneEntity phone;
+    private OrderItemEntity orderItem;
+    private OrderEntity order;
+
+    @BeforeEach
+    void setupEach() {
+        mapper = new ModelMapper();
+        mapper.getConfiguration().setSkipNullEnabled(true);
+        brand = BrandEntity.builder().id(1L).name("BrandName1")
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        phone = PhoneEntity.builder().id(2L).price(1000.0).quantity(10L).description("Description")
+                .specification("Specification").discount(0.1).effectivePrice(900.0).brand(brand)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        orderItem = OrderItemEntity.builder().id(3L).phone(phone).quantity(2L)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        order = OrderEntity.builder().id(4L).status(OrderStatus.PENDING).orderItems(List.of(orderItem))
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    @DisplayName("Convert phone entity to dto gives the same dto as ModelMapper")
+    void convertPhoneToDto_sameAsModelMapper() {
+        assertEquals(modelMapperPhoneDto(phone), PhoneDto.convertToDto(phone));
+    }
+
+    @Test
+    @DisplayName("Convert phone dto to entity gives the same entity as ModelMapper, without the effective price")
+    void convertPhoneToEntity_sameAsModelMapper() {
+        PhoneDto phoneDto = PhoneDto.convertToDto(phone);
+        PhoneEntity expected = new PhoneEntity();
+        mapper.map(phoneDto, expected);
+        expected.setEffectivePrice(null);
+        BrandEntity expectedBrand = new BrandEntity();
+        mapper.map(phoneDto.getBrand(), expectedBrand);
+        expected.setBrand(expectedBrand);
+
+        assertEquals(expected, PhoneDto.convertToEntity(phoneDto));
+    }
+
+    @Test
+    @DisplayName("Convert order entity to dto gives the same dto as ModelMapper")
+    void convertOrderToDto_sameAsModelMapper() {
+        OrderItemDto expectedItem = new OrderItemDto();
+        mapper.map(orderItem, expectedItem);
+        expectedItem.setPhone(modelMapperPhoneDto(phone));
+        OrderDto expected = new OrderDto();
+        mapper.map(order, expected);
+        expected.setOrderItems(List.of(expectedItem));
+        expected.setStatus(order.getStatus().getType());
+
+        assertEquals(expected, OrderDto.convertToDto(order));
+    }
+
+    @Test
+    @DisplayName("Convert create order dto to entity keeps only the order items")
+    void convertCreateOrderToEntity_onlyOrderItems() {
+        CreateOrderDto createOrderDto = new CreateOrderDto(List.of(OrderItemDto.convertToDto(orderItem)));
+
+        OrderEntity entity = CreateOrderDto.convertToEntity(createOrderDto);
+
+        assertNull(entity.getId());
+        assertNull(entity.getStatus());
+        assertEquals(1, entity.getOrderItems().size());
+        assertEquals(PhoneDto.convertToEntity(PhoneDto.convertToDto(phone)), entity.getOrderItems().get(0).getPhone());
+        assertEquals(orderItem.getQuantity(), entity.getOrderItems().get(0).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Convert place order dto to entity keeps the phone id and quantity of each line")
+    void convertPlaceOrderToEntity_phoneIdAndQuantity() {
+        PlaceOrderDto placeOrderDto = new PlaceOrderDto(List.of(new OrderLineDto(2L, 3L), new OrderLineDto(5L, 1L)));
+
+        OrderEntity entity = PlaceOrderDto.convertToEntity(placeOrderDto);
+
+        assertEquals(2, entity.getOrderItems().size());
+        assertEquals(2L, entity.getOrderItems().get(0).getPhone().getId());
+        assertEquals(3L, entity.getOrderItems().get(0).getQuantity());
+        assertEquals(5L, entity.getOrderItems().get(1).getPhone().getId());
+        assertEquals(1L, entity.getOrderItems().get(1).getQuantity());
+    }
+
+    @Test
+    @DisplayName("Convert user entity to dto gives the same dto as ModelMapper")
+    void convertUserToDto_sameAsModelMapper() {
+        UserEntity user = UserEntity.builder().id(5L).username("username").password("password").email("user@email.com")
+                .fullName("Full Name").isActive(true).userType(UserType.CUSTOMER)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build();
+        UserDto expected = new UserDto();
+        mapper.map(user, expected);
+        expected.setUserType(user.getUserType().getType());
+
+        assertEquals(expected, UserDto.convertToDto(user));
+    }
+
+    private PhoneDto modelMapperPhoneDto(PhoneEntity entity) {
+        PhoneDto dto = new PhoneDto();
+        mapper.map(entity, dto);
+        BrandDto brandDto = new BrandDto();
+        mapper.map(entity.getBrand(), brandDto);
+        dto.setBrand(brandDto);
+        return dto;
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import org.hibernate.Hibernate;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -58,4 +60,25 @@ public class BrandRepositoryTest {
 
         assertTrue(brandEntityOptional.isEmpty());
     }
+
+    @Test
+    @DisplayName("Find brand with phone list using valid brand name returns the brand with its phones loaded")
+    void findWithPhoneListByName_usingValidBrandName_returnsBrandWithPhones() {
+        testEntityManager.persist(PhoneEntity.builder()
+                .brand(brand1)
+                .price(100.0)
+                .description("Description 1")
+                .discount(0.1)
+                .quantity(100L)
+                .specification("Specification 1")
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        BrandEntity result = brandRepository.findWithPhoneListByName(brand1.getName()).orElseThrow();
+        testEntityManager.clear();
+
+        assertTrue(Hibernate.isInitialized(result.getPhoneList()));
+        assertEquals(1, result.getPhoneList().size());
+    }
 }
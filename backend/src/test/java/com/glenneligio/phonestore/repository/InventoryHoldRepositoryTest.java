@@ -0,0 +1,93 @@
+package com.glenneligio.phonestore.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+public class InventoryHoldRepositoryTest {
+
+    private InventoryHoldRepository inventoryHoldRepository;
+    private OrderRepository orderRepository;
+    private TestEntityManager testEntityManager;
+
+    private LocalDateTime now;
+    private InventoryHoldEntity dueHold;
+    private InventoryHoldEntity laterHold;
+
+    @Autowired
+    public InventoryHoldRepositoryTest(InventoryHoldRepository inventoryHoldRepository, OrderRepository orderRepository,
+                                       TestEntityManager testEntityManager) {
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.orderRepository = orderRepository;
+        this.testEntityManager = testEntityManager;
+    }
+
+    @BeforeEach
+    void setupEach() {
+        now = LocalDateTime.now();
+        UserEntity user = testEntityManager.persist(UserEntity.builder()
+                .username("HoldUsername")
+                .fullName("Fullname1")
+                .isActive(true)
+                .password("Password1")
+                .userType(UserType.CUSTOMER)
+                .email("Email1@gmail.com")
+                .build());
+        dueHold = testEntityManager.persist(InventoryHoldEntity.builder()
+                .order(persistOrder(user))
+                .expiresAt(now.minusMinutes(1))
+                .build());
+        laterHold = testEntityManager.persist(InventoryHoldEntity.builder()
+                .order(persistOrder(user))
+                .expiresAt(now.plusMinutes(30))
+                .build());
+        testEntityManager.flush();
+    }
+
+    private OrderEntity persistOrder(UserEntity user) {
+        return testEntityManager.persist(OrderEntity.builder()
+                .status(OrderStatus.PENDING)
+                .user(user)
+                .orderItems(new ArrayList<>())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Find due returns only the holds that expired")
+    void findDue_returnsOnlyExpiredHolds() {
+        List<InventoryHoldEntity> result = inventoryHoldRepository.findDue(now, PageRequest.of(0, 10));
+
+        assertEquals(1, result.size());
+        assertEquals(dueHold.getId(), result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Delete hold by id claims the hold only once")
+    void deleteHoldById_calledTwice_claimsOnce() {
+        assertEquals(1, inventoryHoldRepository.deleteHoldById(dueHold.getId()));
+        assertEquals(0, inventoryHoldRepository.deleteHoldById(dueHold.getId()));
+    }
+
+    @Test
+    @DisplayName("Update status only moves orders that still have the expected status")
+    void updateStatus_withUnexpectedStatus_updatesNothing() {
+        Long orderId = laterHold.getOrder().getId();
+
+        assertEquals(1, orderRepository.updateStatus(orderId, OrderStatus.PENDING, OrderStatus.EXPIRED));
+        assertEquals(0, orderRepository.updateStatus(orderId, OrderStatus.PENDING, OrderStatus.COMPLETED));
+    }
+}
@@ -0,0 +1,87 @@
+package com.glenneligio.phonestore.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Checks that an order and its items are inserted in batches instead of one statement per row
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderBatchInsertTest {
+    private static final int ORDER_LINE_COUNT = 20;
+
+    private OrderRepository orderRepository;
+    private TestEntityManager testEntityManager;
+    private Statistics statistics;
+
+    private UserEntity userEntity;
+    private List<PhoneEntity> phones;
+
+    @Autowired
+    public OrderBatchInsertTest(OrderRepository orderRepository, TestEntityManager testEntityManager,
+                                EntityManagerFactory entityManagerFactory) {
+        this.orderRepository = orderRepository;
+        this.testEntityManager = testEntityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setupEach() {
+        BrandEntity brand = testEntityManager.persist(BrandEntity.builder().name("Batch Brand").build());
+        phones = new ArrayList<>();
+        for(int i = 0; i < ORDER_LINE_COUNT; i++) {
+            phones.add(testEntityManager.persist(PhoneEntity.builder()
+                    .brand(brand)
+                    .price(100.0 + i)
+                    .description("Description " + i)
+                    .discount(0.1)
+                    .quantity(1000L)
+                    .specification("Specification " + i)
+                    .build()));
+        }
+        userEntity = testEntityManager.persist(UserEntity.builder()
+                .username("BatchUsername")
+                .fullName("Fullname1")
+                .isActive(true)
+                .password("Password1")
+                .userType(UserType.CUSTOMER)
+                .email("Email1@gmail.com")
+                .build());
+        testEntityManager.flush();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Save order with 20 items sends one insert batch per table")
+    void save_orderWithItems_insertsInBatches() {
+        OrderEntity order = OrderEntity.builder()
+                .status(OrderStatus.PENDING)
+                .user(userEntity)
+                .orderItems(new ArrayList<>())
+                .build();
+        for(PhoneEntity phone : phones) {
+            order.getOrderItems().add(OrderItemEntity.builder().phone(phone).quantity(1L).order(order).build());
+        }
+
+        orderRepository.save(order);
+        testEntityManager.flush();
+
+        assertEquals(ORDER_LINE_COUNT + 1, statistics.getEntityInsertCount());
+        // one insert per table, plus at most two sequence calls per table for the pooled ids
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "Expected the inserts to be batched but " + statistics.getPrepareStatementCount() + " statements were prepared");
+    }
+}
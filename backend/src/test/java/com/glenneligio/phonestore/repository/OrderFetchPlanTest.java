@@ -0,0 +1,159 @@
+package com.glenneligio.phonestore.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.dtos.OrderDto;
+import com.glenneligio.phonestore.dtos.OrderItemDto;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Checks the number of sql statements each use case of the order graph needs, converting the result to
+// dtos included. The counts must not grow with the number of orders, items, phones or brands.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class OrderFetchPlanTest {
+    private static final int ORDER_COUNT = 50;
+    private static final int ITEMS_PER_ORDER = 5;
+
+    private OrderRepository orderRepository;
+    private OrderItemRepository orderItemRepository;
+    private PhoneRepository phoneRepository;
+    private TestEntityManager testEntityManager;
+    private Statistics statistics;
+
+    private UserEntity userEntity;
+    private Long orderId;
+
+    @Autowired
+    public OrderFetchPlanTest(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
+                              PhoneRepository phoneRepository, TestEntityManager testEntityManager,
+                              EntityManagerFactory entityManagerFactory) {
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.phoneRepository = phoneRepository;
+        this.testEntityManager = testEntityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setupEach() {
+        List<BrandEntity> brands = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            brands.add(testEntityManager.persist(BrandEntity.builder().name("Fetch Brand " + i).build()));
+        }
+        List<PhoneEntity> phones = new ArrayList<>();
+        for(int i = 0; i < ITEMS_PER_ORDER; i++) {
+            phones.add(testEntityManager.persist(PhoneEntity.builder()
+                    .brand(brands.get(i % brands.size()))
+                    .price(100.0 + i)
+                    .description("Description " + i)
+                    .discount(0.1)
+                    .quantity(1000L)
+                    .specification("Specification " + i)
+                    .build()));
+        }
+        userEntity = testEntityManager.persist(UserEntity.builder()
+                .username("FetchUsername")
+                .fullName("Fullname1")
+                .isActive(true)
+                .password("Password1")
+                .userType(UserType.CUSTOMER)
+                .email("Email1@gmail.com")
+                .build());
+        for(int i = 0; i < ORDER_COUNT; i++) {
+            OrderEntity order = OrderEntity.builder()
+                    .status(OrderStatus.PENDING)
+                    .user(userEntity)
+                    .orderItems(new ArrayList<>())
+                    .build();
+            for(PhoneEntity phone : phones) {
+                order.getOrderItems().add(OrderItemEntity.builder().phone(phone).quantity(1L).order(order).build());
+            }
+            orderId = testEntityManager.persist(order).getId();
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Order list of a user with its items, phones and brands takes one statement")
+    void findByUserUsername_orderList_takesOneStatement() {
+        List<OrderDto> orders = orderRepository.findByUserUsername(userEntity.getUsername()).stream()
+                .map(OrderDto::convertToDto)
+                .toList();
+
+        assertEquals(ORDER_COUNT, orders.size());
+        assertEquals(ITEMS_PER_ORDER, orders.get(0).getOrderItems().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Order list of all orders takes one statement")
+    void findAll_orderList_takesOneStatement() {
+        List<OrderDto> orders = orderRepository.findAll().stream().map(OrderDto::convertToDto).toList();
+
+        assertTrue(orders.size() >= ORDER_COUNT);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Order detail and item list takes one statement")
+    void findWithItemsById_orderDetail_takesOneStatement() {
+        OrderEntity order = orderRepository.findWithItemsById(orderId).orElseThrow();
+        OrderDto orderDto = OrderDto.convertToDto(order);
+        String owner = order.getUser().getUsername();
+
+        assertEquals(ITEMS_PER_ORDER, orderDto.getOrderItems().size());
+        assertEquals(userEntity.getUsername(), owner);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Ownership check takes one statement and does not load any entity")
+    void findOwnerUsernameById_ownershipCheck_takesOneStatement() {
+        String owner = orderRepository.findOwnerUsernameById(orderId).orElseThrow();
+
+        assertEquals(userEntity.getUsername(), owner);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Ownership check of an order that does not exist returns empty optional")
+    void findOwnerUsernameById_usingInvalidId_returnsEmptyOptional() {
+        assertTrue(orderRepository.findOwnerUsernameById(69420L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Order item list with phones and brands takes one statement")
+    void findAll_orderItemList_takesOneStatement() {
+        List<OrderItemDto> orderItems = orderItemRepository.findAll().stream().map(OrderItemDto::convertToDto).toList();
+
+        assertTrue(orderItems.size() >= ORDER_COUNT * ITEMS_PER_ORDER);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Phone list with brands takes one statement")
+    void findAll_phoneList_takesOneStatement() {
+        List<PhoneDto> phones = phoneRepository.findAll().stream().map(PhoneDto::convertToDto).toList();
+
+        assertTrue(phones.size() >= ITEMS_PER_ORDER);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -3,8 +3,11 @@ package com.glenneligio.phonestore.repository;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.glenneligio.phonestore.dtos.PhoneCursor;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
 import com.glenneligio.phonestore.entity.BrandEntity;
 import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.enums.PhoneSortKey;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +16,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 @DataJpaTest
@@ -78,4 +83,118 @@ public class PhoneRepositoryTest {
         assertNotNull(result);
         assertEquals(0, result.size());
     }
+
+    @Test
+    @DisplayName("Find phones using the new name of a renamed brand returns the phones of the brand")
+    void findByBrandName_afterBrandRename_returnPhonesOfBrand() {
+        BrandEntity brand = phoneEntity1.getBrand();
+        brand.setName("RenamedBrandName1");
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        List<PhoneEntity> result = phoneRepository.findByBrandName("RenamedBrandName1");
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().allMatch(phone -> brand.getId().equals(phone.getBrand().getId())));
+    }
+
+    @Test
+    @DisplayName("Decrement quantity with enough stock updates one row and reduces the stock")
+    void decrementQuantity_withEnoughStock_reducesStock() {
+        Long phoneId = phoneEntity1.getId();
+
+        int result = phoneRepository.decrementQuantity(phoneId, 40L);
+
+        assertEquals(1, result);
+        assertEquals(60L, phoneRepository.findById(phoneId).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Decrement quantity with not enough stock updates no row and keeps the stock")
+    void decrementQuantity_withNotEnoughStock_keepsStock() {
+        Long phoneId = phoneEntity1.getId();
+
+        int result = phoneRepository.decrementQuantity(phoneId, 101L);
+
+        assertEquals(0, result);
+        assertEquals(100L, phoneRepository.findById(phoneId).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Find all for update returns the existing phones in id order")
+    void findAllForUpdateByIdIn_returnsExistingPhonesInIdOrder() {
+        List<Long> ids = phoneRepository.findAll().stream().map(PhoneEntity::getId).sorted(Comparator.reverseOrder()).toList();
+        List<Long> idsWithMissingPhone = new ArrayList<>(ids);
+        idsWithMissingPhone.add(-1L);
+
+        List<PhoneEntity> result = phoneRepository.findAllForUpdateByIdIn(idsWithMissingPhone);
+
+        assertEquals(ids.size(), result.size());
+        assertEquals(ids.stream().sorted().toList(), result.stream().map(PhoneEntity::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Increment quantity adds the quantity back to the stock")
+    void incrementQuantity_addsStock() {
+        Long phoneId = phoneEntity1.getId();
+
+        int result = phoneRepository.incrementQuantity(phoneId, 5L);
+
+        assertEquals(1, result);
+        assertEquals(105L, phoneRepository.findById(phoneId).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Find phone page returns one extra phone when there are more phones than the limit")
+    void findPhonePage_withMorePhonesThanLimit_returnsLimitPlusOne() {
+        PhonePageRequest pageRequest = PhonePageRequest.of(null, "price", "asc", 1, null);
+
+        List<PhoneEntity> result = phoneRepository.findPhonePage(pageRequest);
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).getId() < result.get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Find phone page using cursor returns the phones after the cursor")
+    void findPhonePage_usingCursor_returnsPhonesAfterCursor() {
+        PhoneCursor cursor = PhoneCursor.of(phoneEntity1, PhoneSortKey.PRICE);
+        PhonePageRequest pageRequest = PhonePageRequest.of(null, "price", "asc", 10, cursor.encode());
+
+        List<PhoneEntity> result = phoneRepository.findPhonePage(pageRequest);
+
+        assertEquals(1, result.size());
+        assertNotEquals(phoneEntity1.getId(), result.get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Find phone page using cursor of a phone without price returns the phones with a price after it")
+    void findPhonePage_usingCursorWithNullValue_returnsPhonesAfterCursor() {
+        PhoneEntity phoneWithoutPrice = PhoneEntity.builder()
+                .brand(phoneEntity1.getBrand())
+                .description("Description 3")
+                .quantity(100L)
+                .specification("Specification 3")
+                .build();
+        testEntityManager.persist(phoneWithoutPrice);
+        PhoneCursor cursor = PhoneCursor.decode(PhoneCursor.of(phoneWithoutPrice, PhoneSortKey.PRICE).encode());
+        PhonePageRequest pageRequest = PhonePageRequest.of(phoneEntity1.getBrand().getName(), "price", "asc", 10, cursor.encode());
+
+        List<PhoneEntity> result = phoneRepository.findPhonePage(pageRequest);
+
+        assertNull(cursor.getValue());
+        assertEquals(phoneWithoutPrice.getId(), cursor.getId());
+        assertEquals(2, result.size());
+        assertTrue(result.stream().noneMatch(phone -> phone.getPrice() == null));
+    }
+
+    @Test
+    @DisplayName("Find phone page using invalid brand name returns empty list")
+    void findPhonePage_usingInvalidBrandName_returnsEmptyList() {
+        PhonePageRequest pageRequest = PhonePageRequest.of("Invalid brand name", "id", "desc", 10, null);
+
+        List<PhoneEntity> result = phoneRepository.findPhonePage(pageRequest);
+
+        assertEquals(0, result.size());
+    }
 }
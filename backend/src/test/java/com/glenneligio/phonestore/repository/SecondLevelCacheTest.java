@@ -0,0 +1,137 @@
+package com.glenneligio.phonestore.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Each repository call runs and commits in its own transaction here, like it does in the service layer,
+// so that the entities reach the second level cache.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    private BrandRepository brandRepository;
+    private PhoneRepository phoneRepository;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+
+    private BrandEntity brand1;
+    private PhoneEntity phone1;
+    private UserEntity user1;
+
+    @Autowired
+    public SecondLevelCacheTest(BrandRepository brandRepository, PhoneRepository phoneRepository,
+                                UserRepository userRepository, PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory) {
+        this.brandRepository = brandRepository;
+        this.phoneRepository = phoneRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+    }
+
+    @BeforeEach
+    void setupEach() {
+        sessionFactory.getCache().evictAllRegions();
+        brand1 = brandRepository.save(BrandEntity.builder().name("Cache Brand 1").build());
+        phone1 = phoneRepository.save(PhoneEntity.builder()
+                .brand(brand1)
+                .price(100.0)
+                .description("Description 1")
+                .discount(0.1)
+                .quantity(100L)
+                .specification("Specification 1")
+                .build());
+        user1 = userRepository.save(UserEntity.builder()
+                .username("CacheUsername1")
+                .fullName("Fullname1")
+                .isActive(true)
+                .password("Password1")
+                .userType(UserType.CUSTOMER)
+                .email("Email1@gmail.com")
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDownEach() {
+        phoneRepository.delete(phone1);
+        brandRepository.delete(brand1);
+        userRepository.delete(user1);
+    }
+
+    @Test
+    @DisplayName("Find brand by name a second time is served from the natural id and entity caches")
+    void findByName_calledTwice_secondCallUsesCache() {
+        brandRepository.findByName(brand1.getName()).orElseThrow();
+        long statementCount = statistics.getPrepareStatementCount();
+
+        BrandEntity result = brandRepository.findByName(brand1.getName()).orElseThrow();
+
+        assertEquals(brand1.getId(), result.getId());
+        assertEquals(statementCount, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Find user by username a second time is served from the natural id and entity caches")
+    void findByUsername_calledTwice_secondCallUsesCache() {
+        userRepository.findByUsername(user1.getUsername()).orElseThrow();
+        long statementCount = statistics.getPrepareStatementCount();
+
+        UserEntity result = userRepository.findByUsername(user1.getUsername()).orElseThrow();
+
+        assertEquals(user1.getId(), result.getId());
+        assertEquals(statementCount, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Find phones by brand name a second time is served from the query cache")
+    void findByBrandName_calledTwice_secondCallUsesQueryCache() {
+        phoneRepository.findByBrandName(brand1.getName());
+        long statementCount = statistics.getPrepareStatementCount();
+
+        var result = phoneRepository.findByBrandName(brand1.getName());
+
+        assertEquals(1, result.size());
+        assertEquals(statementCount, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("Find phones by brand name after a stock change queries the database again")
+    void findByBrandName_afterStockChange_queriesAgain() {
+        phoneRepository.findByBrandName(brand1.getName());
+        transactionTemplate.executeWithoutResult(status -> phoneRepository.incrementQuantity(phone1.getId(), 1L));
+        long statementCount = statistics.getPrepareStatementCount();
+
+        var result = phoneRepository.findByBrandName(brand1.getName());
+
+        assertEquals(101L, result.get(0).getQuantity());
+        assertTrue(statistics.getPrepareStatementCount() > statementCount);
+    }
+}
@@ -63,4 +63,22 @@ public class UserRepositoryTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    @DisplayName("Find tokens revoked at of a user without revocation returns 0")
+    void findTokensRevokedAtByUsername_userNotRevoked_returnsZero() {
+        Optional<Long> result = userRepository.findTokensRevokedAtByUsername(userEntity.getUsername());
+
+        assertEquals(Optional.of(0L), result);
+    }
+
+    @Test
+    @DisplayName("Find tokens revoked at returns the stored revocation time and nothing for an invalid username")
+    void findTokensRevokedAtByUsername_revokedUser_returnsRevokedAt() {
+        userEntity.setTokensRevokedAt(1000L);
+        testEntityManager.flush();
+
+        assertEquals(Optional.of(1000L), userRepository.findTokensRevokedAtByUsername(userEntity.getUsername()));
+        assertTrue(userRepository.findTokensRevokedAtByUsername("Invalid username").isEmpty());
+    }
 }
@@ -17,6 +17,7 @@ import org.mockito.Mockito;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -34,6 +35,9 @@ public class BrandServiceTest {
     @Mock
     private ModelMapper modelMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BrandService brandService;
 
@@ -198,7 +202,7 @@ public class BrandServiceTest {
     @DisplayName("Get all phones using valid brand name returns a list of phones")
     void getBrandPhones_usingValidName_returnsPhoneList() {
         String validName = brand1.getName();
-        when(brandRepository.findByName(validName)).thenReturn(Optional.of(brand1));
+        when(brandRepository.findWithPhoneListByName(validName)).thenReturn(Optional.of(brand1));
 
         List<PhoneEntity> result = brandService.getBrandPhones(validName);
 
@@ -211,7 +215,7 @@ public class BrandServiceTest {
     @DisplayName("Get all phones using invalid brand name throws ApiException")
     void getBrandPhones_usingInvalidName_throwsApiException() {
         String invalidName = "Invalid brand name";
-        when(brandRepository.findByName(invalidName)).thenReturn(Optional.empty());
+        when(brandRepository.findWithPhoneListByName(invalidName)).thenReturn(Optional.empty());
 
         assertThrows(ApiException.class, () -> brandService.getBrandPhones(invalidName));
     }
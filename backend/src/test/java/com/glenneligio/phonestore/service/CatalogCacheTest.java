@@ -0,0 +1,147 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.configurations.CacheConfiguration;
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.BrandRepository;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Checks the cache annotations of BrandService and PhoneService through the spring proxies
+@SpringBootTest
+public class CatalogCacheTest {
+
+    @MockBean
+    private BrandRepository brandRepository;
+    @MockBean
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private BrandService brandService;
+    @Autowired
+    private PhoneService phoneService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BrandEntity brand1;
+    private PhoneEntity phone1;
+
+    @BeforeEach
+    void setupEach() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        brand1 = BrandEntity.builder().id(1L).name("BrandName1").build();
+        phone1 = PhoneEntity.builder().id(2L).price(1000.0).quantity(10L).discount(0.1)
+                .description("Description").specification("Specification").brand(brand1).build();
+    }
+
+    @Test
+    @DisplayName("Get brand by name twice queries the brand once")
+    void getBrandByName_calledTwice_queriesOnce() {
+        when(brandRepository.findByName(brand1.getName())).thenReturn(Optional.of(brand1));
+
+        brandService.getBrandByName(brand1.getName());
+        var result = brandService.getBrandByName(brand1.getName());
+
+        assertEquals(brand1, result);
+        verify(brandRepository, times(1)).findByName(brand1.getName());
+    }
+
+    @Test
+    @DisplayName("Update brand evicts the cached brand")
+    void updateBrandById_afterGet_queriesAgain() {
+        BrandEntity brandUpdate = BrandEntity.builder().name("BrandName2").build();
+        when(brandRepository.findByName(brand1.getName())).thenReturn(Optional.of(brand1));
+        when(brandRepository.findByName(brandUpdate.getName())).thenReturn(Optional.empty());
+        when(brandRepository.findById(brand1.getId())).thenReturn(Optional.of(brand1));
+        when(brandRepository.save(any(BrandEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        brandService.getBrandByName(brand1.getName());
+
+        brandService.updateBrandById(brand1.getId(), brandUpdate);
+        brandService.getBrandByName(brand1.getName());
+
+        verify(brandRepository, times(2)).findByName(brand1.getName());
+    }
+
+    @Test
+    @DisplayName("Get brand by name that does not exist is not cached")
+    void getBrandByName_usingInvalidName_notCached() {
+        when(brandRepository.findByName("InvalidBrand")).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class, () -> brandService.getBrandByName("InvalidBrand"));
+        assertThrows(ApiException.class, () -> brandService.getBrandByName("InvalidBrand"));
+
+        verify(brandRepository, times(2)).findByName("InvalidBrand");
+    }
+
+    @Test
+    @DisplayName("Get phone by id twice queries the phone once")
+    void getPhoneById_calledTwice_queriesOnce() {
+        when(phoneRepository.findById(phone1.getId())).thenReturn(Optional.of(phone1));
+
+        phoneService.getPhoneById(phone1.getId());
+        var result = phoneService.getPhoneById(phone1.getId());
+
+        assertEquals(phone1, result);
+        verify(phoneRepository, times(1)).findById(phone1.getId());
+    }
+
+    @Test
+    @DisplayName("Stock change of a phone evicts the cached phone")
+    void phoneStockChanged_afterGet_queriesAgain() {
+        when(phoneRepository.findById(phone1.getId())).thenReturn(Optional.of(phone1));
+        phoneService.getPhoneById(phone1.getId());
+
+        eventPublisher.publishEvent(new PhoneStockChangedEvent(Map.of(phone1.getId(), -1L)));
+        phoneService.getPhoneById(phone1.getId());
+
+        verify(phoneRepository, times(2)).findById(phone1.getId());
+    }
+
+    @Test
+    @DisplayName("Delete phone evicts the cached phone")
+    void deletePhone_afterGet_queriesAgain() {
+        when(phoneRepository.findById(phone1.getId())).thenReturn(Optional.of(phone1));
+        phoneService.getPhoneById(phone1.getId());
+
+        phoneService.deletePhone(phone1.getId());
+        phoneService.getPhoneById(phone1.getId());
+
+        // once for each get and once for the delete
+        verify(phoneRepository, times(3)).findById(phone1.getId());
+    }
+
+    @Test
+    @DisplayName("Cache hits are recorded in the cache.gets metric")
+    void getBrandByName_cacheHit_recordedInMetrics() {
+        when(brandRepository.findByName(brand1.getName())).thenReturn(Optional.of(brand1));
+        double hitsBefore = cacheHits(CacheConfiguration.BRANDS_BY_NAME);
+
+        brandService.getBrandByName(brand1.getName());
+        brandService.getBrandByName(brand1.getName());
+
+        assertEquals(hitsBefore + 1, cacheHits(CacheConfiguration.BRANDS_BY_NAME));
+    }
+
+    private double cacheHits(String cacheName) {
+        return meterRegistry.get("cache.gets").tag("cache", cacheName).tag("result", "hit").functionCounter().count();
+    }
+}
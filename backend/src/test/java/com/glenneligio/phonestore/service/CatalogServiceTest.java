@@ -0,0 +1,99 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.repository.BrandRepository;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// The snapshot is turned off for the other tests. The scheduled refresh is pushed out so that the tests
+// decide when the stale phones are read again.
+@SpringBootTest(properties = {
+        "phone-store.catalog.snapshot-enabled=true",
+        "phone-store.catalog.refresh-interval=PT1H"
+})
+public class CatalogServiceTest {
+    private static final String BRAND_NAME = "Snapshot Brand";
+
+    @Autowired
+    private CatalogService catalogService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private BrandRepository brandRepository;
+    @Autowired
+    private PhoneRepository phoneRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private BrandEntity brand;
+    private PhoneEntity phone;
+
+    @BeforeEach
+    void setupEach() {
+        brand = brandRepository.save(BrandEntity.builder().name(BRAND_NAME).build());
+        phone = phoneRepository.save(PhoneEntity.builder()
+                .brand(brand)
+                .price(100.0)
+                .description("Description 1")
+                .discount(0.1)
+                .quantity(10L)
+                .specification("Specification 1")
+                .build());
+        catalogService.rebuild();
+    }
+
+    @AfterEach
+    void tearDownEach() {
+        phoneRepository.deleteById(phone.getId());
+        brandRepository.deleteById(brand.getId());
+    }
+
+    @Test
+    @DisplayName("A stock change shows in the snapshot with its new update time after the refresh")
+    void refreshStalePhones_afterReservation_showsNewStock() {
+        LocalDateTime updatedAtBefore = getSnapshotPhone().getUpdatedAt();
+
+        inventoryService.reserveStock(phone.getId(), 3L);
+        catalogService.refreshStalePhones();
+
+        PhoneDto snapshotPhone = getSnapshotPhone();
+        assertEquals(7L, snapshotPhone.getQuantity());
+        assertTrue(snapshotPhone.getUpdatedAt().isAfter(updatedAtBefore));
+    }
+
+    @Test
+    @DisplayName("A stock change that the rebuild already read is not applied a second time")
+    void refreshStalePhones_changeReadByRebuild_isNotAppliedTwice() {
+        transactionTemplate.executeWithoutResult(status -> phoneRepository.decrementQuantity(phone.getId(), 3L));
+        catalogService.rebuild();
+
+        // the change arrives after the rebuild has read it
+        eventPublisher.publishEvent(new PhoneStockChangedEvent(Map.of(phone.getId(), -3L)));
+        catalogService.refreshStalePhones();
+
+        assertEquals(7L, getSnapshotPhone().getQuantity());
+    }
+
+    private PhoneDto getSnapshotPhone() {
+        return catalogService.getPhonePage(PhonePageRequest.of(BRAND_NAME, "id", "asc", 10, null))
+                .getPhones().get(0);
+    }
+}
@@ -0,0 +1,150 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.dtos.BrandDto;
+import com.glenneligio.phonestore.dtos.PhoneDto;
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CatalogSnapshotTest {
+
+    private BrandDto brand1, brand2;
+    private CatalogSnapshot snapshot;
+
+    @BeforeEach
+    void setupEach() {
+        brand1 = new BrandDto(1L, "BrandName1", null, null);
+        brand2 = new BrandDto(2L, "BrandName2", null, null);
+        Map<Long, PhoneDto> phones = new HashMap<>();
+        phones.put(1L, createPhone(1L, 300.0, 10L, brand1));
+        phones.put(2L, createPhone(2L, 100.0, 10L, brand2));
+        phones.put(3L, createPhone(3L, 200.0, 10L, brand1));
+        phones.put(4L, createPhone(4L, 100.0, 10L, brand1));
+        snapshot = new CatalogSnapshot(1, List.of(brand1, brand2), phones);
+    }
+
+    @Test
+    @DisplayName("Find phone page sorted by price returns the first page and a cursor that continues after it")
+    void findPhonePage_sortedByPrice_returnsPagesInOrder() {
+        PhonePage<PhoneDto> firstPage = snapshot.findPhonePage(PhonePageRequest.of(null, "price", "asc", 3, null));
+
+        assertEquals(List.of(2L, 4L, 3L), firstPage.getPhones().stream().map(PhoneDto::getId).toList());
+        assertNotNull(firstPage.getNextCursor());
+
+        PhonePage<PhoneDto> secondPage = snapshot.findPhonePage(PhonePageRequest.of(null, "price", "asc", 3, firstPage.getNextCursor().encode()));
+
+        assertEquals(List.of(1L), secondPage.getPhones().stream().map(PhoneDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Find phone page in descending order with a cursor returns the phones before the cursor")
+    void findPhonePage_descendingWithCursor_returnsPhonesBeforeCursor() {
+        PhonePage<PhoneDto> firstPage = snapshot.findPhonePage(PhonePageRequest.of(null, "price", "desc", 2, null));
+
+        assertEquals(List.of(1L, 3L), firstPage.getPhones().stream().map(PhoneDto::getId).toList());
+
+        PhonePage<PhoneDto> secondPage = snapshot.findPhonePage(PhonePageRequest.of(null, "price", "desc", 2, firstPage.getNextCursor().encode()));
+
+        assertEquals(List.of(4L, 2L), secondPage.getPhones().stream().map(PhoneDto::getId).toList());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Find phone page with brand and price range returns only the matching phones")
+    void findPhonePage_withBrandAndPriceRange_returnsMatchingPhones() {
+        PhonePage<PhoneDto> page = snapshot.findPhonePage(PhonePageRequest.of("BrandName1", 150.0, 300.0, "id", "asc", 10, null));
+
+        assertEquals(List.of(1L, 3L), page.getPhones().stream().map(PhoneDto::getId).toList());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Find phone page with an unknown brand returns no phones")
+    void findPhonePage_withUnknownBrand_returnsEmptyPage() {
+        PhonePage<PhoneDto> page = snapshot.findPhonePage(PhonePageRequest.of("Unknown brand", "id", "asc", 10, null));
+
+        assertTrue(page.getPhones().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Find phone page with a cursor on a phone without price continues with the priced phones")
+    void findPhonePage_cursorWithoutPrice_continuesAfterIt() {
+        CatalogSnapshot changed = snapshot.withPhone(createPhone(5L, null, 1L, brand1));
+
+        PhonePage<PhoneDto> firstPage = changed.findPhonePage(PhonePageRequest.of(null, "price", "asc", 1, null));
+
+        assertEquals(List.of(5L), firstPage.getPhones().stream().map(PhoneDto::getId).toList());
+
+        PhonePage<PhoneDto> secondPage = changed.findPhonePage(PhonePageRequest.of(null, "price", "asc", 2, firstPage.getNextCursor().encode()));
+
+        assertEquals(List.of(2L, 4L), secondPage.getPhones().stream().map(PhoneDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("With phone returns a new snapshot containing the phone and leaves the old one unchanged")
+    void withPhone_newPhone_returnsNewSnapshot() {
+        CatalogSnapshot changed = snapshot.withPhone(createPhone(5L, 50.0, 1L, brand2));
+
+        assertEquals(2, changed.getVersion());
+        assertEquals(5, changed.getPhoneCount());
+        assertEquals(4, snapshot.getPhoneCount());
+        assertEquals(5L, changed.findPhonePage(PhonePageRequest.of(null, "price", "asc", 1, null)).getPhones().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("With phone ignores a change older than the phone in the snapshot")
+    void withPhone_olderChange_returnsSameSnapshot() {
+        PhoneDto olderPhone = createPhone(1L, 999.0, 1L, brand1);
+        olderPhone.setUpdatedAt(LocalDateTime.now().minusDays(1));
+
+        assertSame(snapshot, snapshot.withPhone(olderPhone));
+    }
+
+    @Test
+    @DisplayName("Without phone removes the phone from the new snapshot")
+    void withoutPhone_existingPhone_removesPhone() {
+        CatalogSnapshot changed = snapshot.withoutPhone(2L);
+
+        assertEquals(3, changed.getPhoneCount());
+        assertSame(changed, changed.withoutPhone(2L));
+    }
+
+    @Test
+    @DisplayName("With refreshed phones replaces the read phones and removes the ones that were not read")
+    void withRefreshedPhones_readAndMissingPhones_replacesAndRemoves() {
+        PhoneDto refreshedPhone = createPhone(1L, 300.0, 7L, brand1);
+
+        CatalogSnapshot changed = snapshot.withRefreshedPhones(List.of(1L, 2L), List.of(refreshedPhone));
+
+        PhoneDto changedPhone = changed.findPhonePage(PhonePageRequest.of(null, "id", "asc", 1, null)).getPhones().get(0);
+        PhoneDto oldPhone = snapshot.findPhonePage(PhonePageRequest.of(null, "id", "asc", 1, null)).getPhones().get(0);
+        assertEquals(7L, changedPhone.getQuantity());
+        assertEquals(10L, oldPhone.getQuantity());
+        assertEquals(3, changed.getPhoneCount());
+        assertEquals(4, snapshot.getPhoneCount());
+    }
+
+    private PhoneDto createPhone(Long id, Double price, Long quantity, BrandDto brand) {
+        PhoneDto phone = new PhoneDto();
+        phone.setId(id);
+        phone.setPrice(price);
+        phone.setEffectivePrice(price);
+        phone.setQuantity(quantity);
+        phone.setDescription("Description" + id);
+        phone.setDiscount(0.0);
+        phone.setUpdatedAt(LocalDateTime.now());
+        phone.setBrand(brand);
+        return phone;
+    }
+}
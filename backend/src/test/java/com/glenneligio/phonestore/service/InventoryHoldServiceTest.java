@@ -0,0 +1,192 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.entity.*;
+import com.glenneligio.phonestore.enums.OrderStatus;
+import com.glenneligio.phonestore.enums.UserType;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.InventoryHoldRepository;
+import com.glenneligio.phonestore.repository.OrderItemRepository;
+import com.glenneligio.phonestore.repository.OrderRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+
+// Runs against the database, the stock release itself is left to a mocked InventoryService
+@DataJpaTest
+public class InventoryHoldServiceTest {
+
+    private InventoryHoldRepository inventoryHoldRepository;
+    private TestEntityManager testEntityManager;
+    private InventoryService inventoryService;
+    private InventoryHoldService inventoryHoldService;
+    private OrderService orderService;
+    private OrderItemService orderItemService;
+
+    private PhoneEntity phone1;
+    private PhoneEntity phone2;
+    private UserEntity user;
+
+    @Autowired
+    public InventoryHoldServiceTest(InventoryHoldRepository inventoryHoldRepository, OrderRepository orderRepository,
+                                    OrderItemRepository orderItemRepository, TestEntityManager testEntityManager,
+                                    PlatformTransactionManager transactionManager) {
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.testEntityManager = testEntityManager;
+        this.inventoryService = mock(InventoryService.class);
+        // batches of one, so that the sweep has to go over several batches
+        this.inventoryHoldService = new InventoryHoldService(inventoryHoldRepository, orderRepository, orderItemRepository,
+                inventoryService, new StoreMetrics(new SimpleMeterRegistry()), transactionManager, Duration.ofMinutes(30), 1);
+        this.orderService = new OrderService(orderRepository, mock(PhoneService.class), mock(UserService.class), inventoryService,
+                mock(PhoneAvailabilityIndex.class), inventoryHoldService, mock(StoreMetrics.class), transactionManager);
+        this.orderItemService = new OrderItemService(orderItemRepository, orderService, mock(PhoneService.class), inventoryService);
+    }
+
+    @BeforeEach
+    void setupEach() {
+        BrandEntity brand = testEntityManager.persist(BrandEntity.builder().name("Hold Brand").build());
+        phone1 = testEntityManager.persist(PhoneEntity.builder().brand(brand).price(100.0).discount(0.1)
+                .quantity(100L).description("Description 1").specification("Specification 1").build());
+        phone2 = testEntityManager.persist(PhoneEntity.builder().brand(brand).price(200.0).discount(0.1)
+                .quantity(100L).description("Description 2").specification("Specification 2").build());
+        user = testEntityManager.persist(UserEntity.builder()
+                .username("HoldUsername")
+                .fullName("Fullname1")
+                .isActive(true)
+                .password("Password1")
+                .userType(UserType.CUSTOMER)
+                .email("Email1@gmail.com")
+                .build());
+    }
+
+    private OrderEntity persistHeldOrder(Map<PhoneEntity, Long> quantityByPhone) {
+        OrderEntity order = OrderEntity.builder()
+                .status(OrderStatus.PENDING)
+                .user(user)
+                .orderItems(new ArrayList<>())
+                .build();
+        quantityByPhone.forEach((phone, quantity) ->
+                order.getOrderItems().add(OrderItemEntity.builder().phone(phone).quantity(quantity).order(order).build()));
+        testEntityManager.persist(order);
+        inventoryHoldService.holdOrder(order);
+        testEntityManager.flush();
+        return order;
+    }
+
+    @Test
+    @DisplayName("Expire due holds expires the pending orders and gives back their stock per phone")
+    void expireDueHolds_afterTtl_expiresOrdersAndReleasesStock() {
+        OrderEntity order1 = persistHeldOrder(Map.of(phone1, 2L, phone2, 1L));
+        OrderEntity order2 = persistHeldOrder(Map.of(phone1, 3L));
+
+        int result = inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+        testEntityManager.clear();
+
+        assertEquals(2, result);
+        assertEquals(OrderStatus.EXPIRED, testEntityManager.find(OrderEntity.class, order1.getId()).getStatus());
+        assertEquals(OrderStatus.EXPIRED, testEntityManager.find(OrderEntity.class, order2.getId()).getStatus());
+        verify(inventoryService).releaseStock(Map.of(phone1.getId(), 2L, phone2.getId(), 1L));
+        verify(inventoryService).releaseStock(Map.of(phone1.getId(), 3L));
+        assertEquals(0, inventoryHoldRepository.count());
+    }
+
+    @Test
+    @DisplayName("Expire due holds before the ttl keeps the orders pending")
+    void expireDueHolds_beforeTtl_keepsOrdersPending() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L));
+
+        int result = inventoryHoldService.expireDueHolds(LocalDateTime.now());
+        testEntityManager.clear();
+
+        assertEquals(0, result);
+        assertEquals(OrderStatus.PENDING, testEntityManager.find(OrderEntity.class, order.getId()).getStatus());
+        verify(inventoryService, never()).releaseStock(anyMap());
+    }
+
+    @Test
+    @DisplayName("Complete order turns the hold into a sale, so it is not expired anymore")
+    void completeOrder_beforeTtl_removesHold() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L));
+
+        inventoryHoldService.completeOrder(order.getId());
+        int result = inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+        testEntityManager.clear();
+
+        assertEquals(0, result);
+        assertEquals(OrderStatus.COMPLETED, testEntityManager.find(OrderEntity.class, order.getId()).getStatus());
+        verify(inventoryService, never()).releaseStock(anyMap());
+    }
+
+    @Test
+    @DisplayName("Complete order after its hold expired throws ApiException with conflict status")
+    void completeOrder_afterExpiry_throwsApiException() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L));
+        inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+
+        ApiException exception = assertThrows(ApiException.class, () -> inventoryHoldService.completeOrder(order.getId()));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+    }
+
+    @Test
+    @DisplayName("Update order item after its order expired throws ApiException and gives no stock back a second time")
+    void updateOrderItem_afterExpiry_throwsApiException() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L));
+        Long orderItemId = order.getOrderItems().get(0).getId();
+        inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+        testEntityManager.clear();
+        OrderItemEntity smallerItem = OrderItemEntity.builder()
+                .phone(PhoneEntity.builder().id(phone1.getId()).build())
+                .quantity(1L)
+                .order(OrderEntity.builder().id(order.getId()).build())
+                .build();
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderItemService.updateOrderItem(orderItemId, smallerItem));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(inventoryService).releaseStock(Map.of(phone1.getId(), 2L));
+        verify(inventoryService, never()).releaseStock(any(Long.class), any(Long.class));
+        verify(inventoryService, never()).reserveStock(any(Long.class), any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Delete pending order gives back its stock and drops its hold")
+    void deleteOrder_pendingOrder_releasesStock() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L, phone2, 1L));
+
+        orderService.deleteOrder(order.getId());
+        testEntityManager.flush();
+        int result = inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+        testEntityManager.clear();
+
+        assertEquals(0, result);
+        assertNull(testEntityManager.find(OrderEntity.class, order.getId()));
+        assertEquals(0, inventoryHoldRepository.count());
+        verify(inventoryService, times(1)).releaseStock(anyMap());
+        verify(inventoryService).releaseStock(Map.of(phone1.getId(), 2L, phone2.getId(), 1L));
+    }
+
+    @Test
+    @DisplayName("Delete order after its hold expired gives no stock back a second time")
+    void deleteOrder_afterExpiry_doesNotReleaseStockAgain() {
+        OrderEntity order = persistHeldOrder(Map.of(phone1, 2L));
+        inventoryHoldService.expireDueHolds(LocalDateTime.now().plusMinutes(31));
+        testEntityManager.clear();
+
+        orderService.deleteOrder(order.getId());
+
+        verify(inventoryService, times(1)).releaseStock(anyMap());
+    }
+}
@@ -0,0 +1,132 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.entity.OrderItemEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+public class InventoryServiceTest {
+
+    @Mock
+    private PhoneRepository phoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private StoreMetrics storeMetrics;
+    @Mock
+    private StockReservationCombiner reservationCombiner;
+    @Mock
+    private PhoneAvailabilityIndex availabilityIndex;
+
+    @InjectMocks
+    private InventoryService inventoryService;
+
+    @Test
+    @DisplayName("Reserve stock with enough stock for every phone takes the stock off the locked phones")
+    void reserveStock_withEnoughStock_reducesStockOfLockedPhones() {
+        Map<Long, Long> quantityByPhoneId = Map.of(1L, 2L, 2L, 3L);
+        PhoneEntity p1 = PhoneEntity.builder().id(1L).quantity(10L).build();
+        PhoneEntity p2 = PhoneEntity.builder().id(2L).quantity(3L).build();
+        when(phoneRepository.findAllForUpdateByIdIn(quantityByPhoneId.keySet())).thenReturn(List.of(p1, p2));
+
+        assertDoesNotThrow(() -> inventoryService.reserveStock(quantityByPhoneId));
+        assertEquals(8L, p1.getQuantity());
+        assertEquals(0L, p2.getQuantity());
+        verify(phoneRepository, never()).decrementQuantity(any(), any());
+    }
+
+    @Test
+    @DisplayName("Reserve stock with not enough stock throws ApiException listing every failed phone")
+    void reserveStock_withNotEnoughStock_throwsApiExceptionWithFailedPhones() {
+        Map<Long, Long> quantityByPhoneId = new LinkedHashMap<>();
+        quantityByPhoneId.put(1L, 2L);
+        quantityByPhoneId.put(2L, 3L);
+        quantityByPhoneId.put(3L, 4L);
+        PhoneEntity p1 = PhoneEntity.builder().id(1L).quantity(1L).build();
+        PhoneEntity p2 = PhoneEntity.builder().id(2L).quantity(3L).build();
+        PhoneEntity p3 = PhoneEntity.builder().id(3L).quantity(0L).build();
+        when(phoneRepository.findAllForUpdateByIdIn(quantityByPhoneId.keySet())).thenReturn(List.of(p1, p2, p3));
+
+        ApiException exception = assertThrows(ApiException.class, () -> inventoryService.reserveStock(quantityByPhoneId));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getCode());
+        assertTrue(exception.getMessage().contains("[1, 3]"));
+        assertEquals(3L, p2.getQuantity());
+        verify(storeMetrics).stockReservationOutOfStock();
+        verify(availabilityIndex).reservationFailed(1L, 2L);
+        verify(availabilityIndex).reservationFailed(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Reserve stock for phone that does not exist throws ApiException with not found status")
+    void reserveStock_usingInvalidPhoneId_throwsApiException() {
+        when(phoneRepository.findAllForUpdateByIdIn(Set.of(69L))).thenReturn(List.of());
+
+        ApiException exception = assertThrows(ApiException.class, () -> inventoryService.reserveStock(69L, 1L));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getCode());
+        verify(storeMetrics).stockReservationNotFound();
+    }
+
+    @Test
+    @DisplayName("Reserve stock combined with a sold out phone gives back the reserved lines and throws ApiException")
+    void reserveStockCombined_withSoldOutPhone_releasesReservedLines() {
+        Map<Long, Long> quantityByPhoneId = new LinkedHashMap<>();
+        quantityByPhoneId.put(1L, 2L);
+        quantityByPhoneId.put(2L, 3L);
+        CompletableFuture<Boolean> reserved = CompletableFuture.completedFuture(true);
+        CompletableFuture<Boolean> soldOut = CompletableFuture.completedFuture(false);
+        when(reservationCombiner.submit(1L, 2L)).thenReturn(reserved);
+        when(reservationCombiner.submit(2L, 3L)).thenReturn(soldOut);
+        when(reservationCombiner.await(reserved)).thenReturn(true);
+        when(reservationCombiner.await(soldOut)).thenReturn(false);
+
+        ApiException exception = assertThrows(ApiException.class, () -> inventoryService.reserveStockCombined(quantityByPhoneId));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getCode());
+        verify(reservationCombiner).release(Map.of(1L, 2L));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Release stock using invalid phone id throws ApiException")
+    void releaseStock_usingInvalidPhoneId_throwsApiException() {
+        when(phoneRepository.incrementQuantity(69L, 1L)).thenReturn(0);
+
+        assertThrows(ApiException.class, () -> inventoryService.releaseStock(69L, 1L));
+    }
+
+    @Test
+    @DisplayName("Get quantity by phone id sums up the lines with the same phone")
+    void getQuantityByPhoneId_sumsUpLinesWithSamePhone() {
+        PhoneEntity p1 = PhoneEntity.builder().id(1L).build();
+        PhoneEntity p2 = PhoneEntity.builder().id(2L).build();
+        List<OrderItemEntity> orderItems = List.of(
+                OrderItemEntity.builder().phone(p1).quantity(1L).build(),
+                OrderItemEntity.builder().phone(p2).quantity(2L).build(),
+                OrderItemEntity.builder().phone(p1).quantity(3L).build());
+
+        Map<Long, Long> result = InventoryService.getQuantityByPhoneId(orderItems);
+
+        assertEquals(Map.of(1L, 4L, 2L, 2L), result);
+    }
+}
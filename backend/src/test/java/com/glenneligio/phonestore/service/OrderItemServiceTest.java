@@ -18,6 +18,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.*;
@@ -32,6 +33,8 @@ public class OrderItemServiceTest {
     private OrderService orderService;
     @Mock
     private PhoneService phoneService;
+    @Mock
+    private InventoryService inventoryService;
 
     @InjectMocks
     private OrderItemService orderItemService;
@@ -93,11 +96,13 @@ public class OrderItemServiceTest {
                 .email("Email2@gmail.com")
                 .build();
         o1 = OrderEntity.builder()
+                .id(1L)
                 .status(OrderStatus.PENDING)
                 .user(u1)
                 .orderItems(new ArrayList<>(Collections.singletonList(oi1)))
                 .build();
         o2 = OrderEntity.builder()
+                .id(2L)
                 .status(OrderStatus.PENDING)
                 .user(u2)
                 .orderItems(new ArrayList<>(Collections.singletonList(oi1)))
@@ -147,11 +152,23 @@ public class OrderItemServiceTest {
         oi1.setQuantity(oiQuantity);
         oi1.getPhone().setQuantity(phoneStock);
 
-        when(phoneService.getPhoneById(oi1.getPhone().getId())).thenReturn(oi1.getPhone());
+        doThrow(new ApiException("Not enough stock", HttpStatus.BAD_REQUEST))
+                .when(inventoryService).reserveStock(oi1.getPhone().getId(), oiQuantity);
 
         assertThrows(ApiException.class, () -> orderItemService.createOrderItem(oi1));
     }
 
+    @Test
+    @DisplayName("Create order item on an order that is no longer pending throws ApiException without reserving stock")
+    void createOrderItem_onOrderNotPending_throwsApiException() {
+        when(orderService.getPendingOrderForUpdate(oi1.getOrder().getId()))
+                .thenThrow(new ApiException("Order with id " + oi1.getOrder().getId() + " is no longer pending", HttpStatus.CONFLICT));
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderItemService.createOrderItem(oi1));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(inventoryService, never()).reserveStock(any(Long.class), any(Long.class));
+    }
+
     @Test
     @DisplayName("Create order item with quantity less than phone stock returns Order Item")
     void createOrderItem_usingOrderItemWithQuantityLessThanStock_returnsOrderItem() {
@@ -165,12 +182,13 @@ public class OrderItemServiceTest {
         updatedOI.getPhone().setQuantity(updatedOI.getPhone().getQuantity() - updatedOI.getQuantity());
 
         when(phoneService.getPhoneById(oi1.getPhone().getId())).thenReturn(oi1.getPhone());
-        when(orderService.getOrderById(oi1.getOrder().getId())).thenReturn(oi1.getOrder());
+        when(orderService.getPendingOrderForUpdate(oi1.getOrder().getId())).thenReturn(oi1.getOrder());
         when(orderItemRepository.save(updatedOI)).thenReturn(updatedOI);
 
         var result = orderItemService.createOrderItem(oi1);
 
         assertNotNull(result);
+        verify(inventoryService).reserveStock(oi1.getPhone().getId(), oi1.getQuantity());
         assertTrue(initialPhoneStock > result.getPhone().getQuantity());
         assertEquals(updatedOI, result);
     }
@@ -195,7 +213,8 @@ public class OrderItemServiceTest {
                 .order(oi1.getOrder())
                 .build();
         when(orderItemRepository.findById(validOrderItemId)).thenReturn(Optional.of(oi1));
-        when(phoneService.getPhoneById(oi1.getPhone().getId())).thenReturn(oi1.getPhone());
+        doThrow(new ApiException("Not enough stock", HttpStatus.BAD_REQUEST))
+                .when(inventoryService).reserveStock(oi1.getPhone().getId(), newQuantity - oi1.getQuantity());
 
         assertThrows(ApiException.class, () -> orderItemService.updateOrderItem(validOrderItemId, updatedOI));
     }
@@ -215,12 +234,13 @@ public class OrderItemServiceTest {
         updatedOI.getPhone().setQuantity(updatedOI.getPhone().getQuantity() - addedQuantity);
         when(orderItemRepository.findById(validOrderItemId)).thenReturn(Optional.of(oi1));
         when(phoneService.getPhoneById(oi1.getPhone().getId())).thenReturn(oi1.getPhone());
-        when(orderService.getOrderById(oi1.getOrder().getId())).thenReturn(oi1.getOrder());
+        when(orderService.getPendingOrderForUpdate(oi1.getOrder().getId())).thenReturn(oi1.getOrder());
         when(orderItemRepository.save(updatedOI)).thenReturn(updatedOI);
 
         var result = orderItemService.updateOrderItem(validOrderItemId, updatedOI);
 
         assertNotNull(result);
+        verify(inventoryService).reserveStock(oi1.getPhone().getId(), addedQuantity);
         assertTrue(initialPhoneStock > result.getPhone().getQuantity());
         assertEquals(updatedOI, result);
     }
@@ -238,8 +258,8 @@ public class OrderItemServiceTest {
         updatedOI.getPhone().setQuantity(updatedOI.getPhone().getQuantity() - addedQuantity);
         p1.setQuantity(p1.getQuantity() + oi1.getQuantity()); // return the quantity from old item
         when(orderItemRepository.findById(validOrderItemId)).thenReturn(Optional.of(oi1));
-        when(phoneService.getPhoneById(p1.getId())).thenReturn(p1);
-        when(phoneService.getPhoneById(p2.getId())).thenReturn(p2);
+        doThrow(new ApiException("Not enough stock", HttpStatus.BAD_REQUEST))
+                .when(inventoryService).reserveStock(p2.getId(), updatedOI.getQuantity());
 
         assertThrows(ApiException.class, () -> orderItemService.updateOrderItem(validOrderItemId, updatedOI));
     }
@@ -262,12 +282,14 @@ public class OrderItemServiceTest {
         when(orderItemRepository.findById(validOrderItemId)).thenReturn(Optional.of(oi1));
         when(phoneService.getPhoneById(p1.getId())).thenReturn(p1);
         when(phoneService.getPhoneById(p2.getId())).thenReturn(p2);
-        when(orderService.getOrderById(o1.getId())).thenReturn(o1);
+        when(orderService.getPendingOrderForUpdate(o1.getId())).thenReturn(o1);
         when(orderItemRepository.save(updatedOI)).thenReturn(updatedOI);
 
         var result = orderItemService.updateOrderItem(validOrderItemId, updatedOI);
 
         assertNotNull(result);
+        verify(inventoryService).releaseStock(p1.getId(), 1L);
+        verify(inventoryService).reserveStock(p2.getId(), updatedOI.getQuantity());
         assertTrue(initialNewPhoneStock > result.getPhone().getQuantity());
         assertTrue(initialOldPhoneStock < p1.getQuantity());
         assertEquals(updatedOI, result);
@@ -287,8 +309,24 @@ public class OrderItemServiceTest {
     void deleteOrderItem_usingValidId_throwsApiException() {
         var validId = oi1.getId();
         when(orderItemRepository.findById(validId)).thenReturn(Optional.of(oi1));
-        when(orderService.getOrderById(oi1.getOrder().getId())).thenReturn(o1);
+        when(orderService.getPendingOrderForUpdate(oi1.getOrder().getId())).thenReturn(o1);
 
         assertDoesNotThrow(() -> orderItemService.deleteOrderItem(validId));
+        verify(inventoryService).releaseStock(oi1.getPhone().getId(), oi1.getQuantity());
+        verify(orderItemRepository).delete(oi1);
+    }
+
+    @Test
+    @DisplayName("Delete order item of an order that is not pending throws ApiException and gives no stock back")
+    void deleteOrderItem_onOrderNotPending_throwsApiException() {
+        var validId = oi1.getId();
+        when(orderItemRepository.findById(validId)).thenReturn(Optional.of(oi1));
+        when(orderService.getPendingOrderForUpdate(oi1.getOrder().getId()))
+                .thenThrow(new ApiException("Order is no longer pending", HttpStatus.CONFLICT));
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderItemService.deleteOrderItem(validId));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(inventoryService, never()).releaseStock(any(Long.class), any(Long.class));
+        verify(orderItemRepository, never()).delete(any());
     }
 }
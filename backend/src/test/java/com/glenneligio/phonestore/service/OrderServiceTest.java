@@ -8,6 +8,7 @@ import com.glenneligio.phonestore.enums.OrderStatus;
 import com.glenneligio.phonestore.enums.UserType;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.repository.OrderRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,12 +17,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
@@ -34,6 +39,16 @@ public class OrderServiceTest {
     private UserService userService;
     @Mock
     private OrderRepository orderRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Mock
+    private StoreMetrics storeMetrics;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private PhoneAvailabilityIndex availabilityIndex;
+    @Mock
+    private InventoryHoldService inventoryHoldService;
 
     @InjectMocks
     private OrderService orderService;
@@ -122,7 +137,7 @@ public class OrderServiceTest {
     @DisplayName("Get order by id using valid id returns Order")
     void getOrderById_usingValidId_returnsOrder() {
         var validId = o1.getId();
-        when(orderRepository.findById(validId)).thenReturn(Optional.of(o1));
+        when(orderRepository.findWithItemsById(validId)).thenReturn(Optional.of(o1));
 
         var result = orderService.getOrderById(validId);
 
@@ -135,11 +150,53 @@ public class OrderServiceTest {
     @DisplayName("Get order by id using invalid id throws ApiException")
     void getOrderById_usingInvalidId_throwsApiException() {
         var invalidId = 69420L;
-        when(orderRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(invalidId)).thenReturn(Optional.empty());
 
         assertThrows(ApiException.class, () -> orderService.getOrderById(invalidId));
     }
 
+    @Test
+    @DisplayName("Get order owner username using valid id returns username")
+    void getOrderOwnerUsername_usingValidId_returnsUsername() {
+        var validId = o1.getId();
+        when(orderRepository.findOwnerUsernameById(validId)).thenReturn(Optional.of(o1.getUser().getUsername()));
+
+        var result = orderService.getOrderOwnerUsername(validId);
+
+        assertEquals(o1.getUser().getUsername(), result);
+    }
+
+    @Test
+    @DisplayName("Get order owner username using invalid id throws ApiException")
+    void getOrderOwnerUsername_usingInvalidId_throwsApiException() {
+        var invalidId = 69420L;
+        when(orderRepository.findOwnerUsernameById(invalidId)).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class, () -> orderService.getOrderOwnerUsername(invalidId));
+    }
+
+    @Test
+    @DisplayName("Get order reference using valid id returns reference without loading the order")
+    void getOrderReference_usingValidId_returnsReference() {
+        var validId = o1.getId();
+        when(orderRepository.existsById(validId)).thenReturn(true);
+        when(orderRepository.getReferenceById(validId)).thenReturn(o1);
+
+        var result = orderService.getOrderReference(validId);
+
+        assertEquals(o1, result);
+        verify(orderRepository, never()).findWithItemsById(validId);
+    }
+
+    @Test
+    @DisplayName("Get order reference using invalid id throws ApiException")
+    void getOrderReference_usingInvalidId_throwsApiException() {
+        var invalidId = 69420L;
+        when(orderRepository.existsById(invalidId)).thenReturn(false);
+
+        assertThrows(ApiException.class, () -> orderService.getOrderReference(invalidId));
+    }
+
     @Test
     @DisplayName("Create order with quantity request less than phone stock returns new order")
     void createOrder_withQuantityRequestLessThanPhoneStock_returnsNewOrder() {
@@ -152,7 +209,7 @@ public class OrderServiceTest {
                 .orderItems(o1.getOrderItems())
                 .user(userOnOrder)
                 .build();
-        // used for mocking phoneService.updatePhone
+        // used for mocking phoneService.getPhonesByIds
         var p1Updated = PhoneEntity.builder()
                 .id(p1.getId())
                 .brand(p1.getBrand())
@@ -169,13 +226,15 @@ public class OrderServiceTest {
                 .build();
 
         when(userService.getUserByUsername(userOnOrder.getUsername())).thenReturn(u1);
-        when(phoneService.getPhoneById(p1.getId())).thenReturn(p1);
-        when(phoneService.updatePhone(p1.getId(), p1Updated)).thenReturn(p1Updated);
+        when(phoneService.getPhonesByIds(Set.of(p1.getId()))).thenReturn(List.of(p1Updated));
         when(orderRepository.save(orderCreated)).thenReturn(orderToCreate);
 
         var result = orderService.createOrder(orderToCreate);
 
         assertNotNull(result);
+        verify(inventoryService).reserveStock(Map.of(p1.getId(), quantityRequested));
+        verify(inventoryHoldService).holdOrder(orderToCreate);
+        verify(storeMetrics).orderPlaced();
         assertEquals(p1Updated, result.getOrderItems().get(0).getPhone());
         assertTrue(initialPhoneQuantity > result.getOrderItems().get(0).getQuantity());
         assertEquals(OrderStatus.PENDING, result.getStatus());
@@ -201,9 +260,52 @@ public class OrderServiceTest {
                 .status(OrderStatus.PENDING)
                 .build();
         when(userService.getUserByUsername(userOnOrder.getUsername())).thenReturn(u1);
-        when(phoneService.getPhoneById(p1.getId())).thenReturn(p1);
+        doThrow(new ApiException("Not enough stock", HttpStatus.BAD_REQUEST))
+                .when(inventoryService).reserveStock(Map.of(p1.getId(), quantityRequest));
+
+        assertThrows(ApiException.class, () -> orderService.createOrder(o1));
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Create order for a phone known to be sold out throws ApiException without reserving stock")
+    void createOrder_withKnownSoldOutPhone_throwsApiException() {
+        doThrow(new ApiException("Phones with id [" + p1.getId() + "] does not have enough stock", HttpStatus.BAD_REQUEST))
+                .when(availabilityIndex).rejectIfNotAvailable(anyMap());
+
+        assertThrows(ApiException.class, () -> orderService.createOrder(o1));
+        verify(inventoryService, never()).reserveStock(anyMap());
+        verify(userService, never()).getUserByUsername(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Create order in flash sale mode reserves the stock through the combiner")
+    void createOrder_withCombinedReservation_reservesStockThroughCombiner() {
+        var quantityRequested = oi1.getQuantity();
+        when(inventoryService.isCombinedReservation()).thenReturn(true);
+        when(userService.getUserByUsername(o1.getUser().getUsername())).thenReturn(u1);
+        when(phoneService.getPhonesByIds(Set.of(p1.getId()))).thenReturn(List.of(p1));
+        when(orderRepository.save(o1)).thenReturn(o1);
+
+        orderService.createOrder(o1);
+
+        verify(inventoryService).reserveStockCombined(Map.of(p1.getId(), quantityRequested));
+        verify(inventoryService, never()).reserveStock(anyMap());
+        verify(inventoryService, never()).releaseStock(anyMap());
+    }
+
+    @Test
+    @DisplayName("Create order in flash sale mode gives the reserved stock back when the order is not saved")
+    void createOrder_withCombinedReservationAndInvalidUser_releasesStock() {
+        var quantityRequested = oi1.getQuantity();
+        when(inventoryService.isCombinedReservation()).thenReturn(true);
+        when(userService.getUserByUsername(o1.getUser().getUsername()))
+                .thenThrow(new ApiException("No user with username exist", HttpStatus.NOT_FOUND));
 
         assertThrows(ApiException.class, () -> orderService.createOrder(o1));
+        verify(inventoryService).releaseStock(Map.of(p1.getId(), quantityRequested));
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -215,7 +317,7 @@ public class OrderServiceTest {
                 .user(u2)
                 .orderItems(o2.getOrderItems())
                 .build();
-        when(orderRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(orderRepository.findForUpdateById(invalidId)).thenReturn(Optional.empty());
 
         assertThrows(ApiException.class, () -> orderService.updateOrder(invalidId, o1Updated));
     }
@@ -229,20 +331,89 @@ public class OrderServiceTest {
                 .user(u2)
                 .orderItems(o2.getOrderItems())
                 .build();
-        when(orderRepository.findById(validId)).thenReturn(Optional.of(o1));
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
         when(orderRepository.save(o1Updated)).thenReturn(o1Updated);
 
         var result = orderService.updateOrder(validId, o1Updated);
 
         assertNotNull(result);
         assertEquals(o1Updated, result);
+        verify(inventoryHoldService).completeOrder(validId);
+    }
+
+    @Test
+    @DisplayName("Update pending order to expired throws ApiException with conflict status")
+    void updateOrder_fromPendingToExpired_throwsApiException() {
+        var validId = o1.getId();
+        var o1Updated = OrderEntity.builder()
+                .status(OrderStatus.EXPIRED)
+                .user(u1)
+                .orderItems(o1.getOrderItems())
+                .build();
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderService.updateOrder(validId, o1Updated));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(inventoryHoldService, never()).completeOrder(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update completed order back to pending throws ApiException with conflict status")
+    void updateOrder_fromCompletedToPending_throwsApiException() {
+        var validId = o1.getId();
+        o1.setStatus(OrderStatus.COMPLETED);
+        var o1Updated = OrderEntity.builder()
+                .status(OrderStatus.PENDING)
+                .user(u1)
+                .orderItems(o1.getOrderItems())
+                .build();
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderService.updateOrder(validId, o1Updated));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update pending order keeping the status does not complete the order")
+    void updateOrder_keepingPendingStatus_doesNotCompleteOrder() {
+        var validId = o1.getId();
+        var o1Updated = OrderEntity.builder()
+                .status(OrderStatus.PENDING)
+                .user(u1)
+                .orderItems(o1.getOrderItems())
+                .build();
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
+        when(orderRepository.save(o1)).thenReturn(o1);
+
+        assertDoesNotThrow(() -> orderService.updateOrder(validId, o1Updated));
+        verify(inventoryHoldService, never()).completeOrder(any());
+    }
+
+    @Test
+    @DisplayName("Update order that has expired throws ApiException with conflict status")
+    void updateOrder_withExpiredOrder_throwsApiException() {
+        var validId = o1.getId();
+        o1.setStatus(OrderStatus.EXPIRED);
+        var o1Updated = OrderEntity.builder()
+                .status(OrderStatus.COMPLETED)
+                .user(u1)
+                .orderItems(o1.getOrderItems())
+                .build();
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
+
+        ApiException exception = assertThrows(ApiException.class, () -> orderService.updateOrder(validId, o1Updated));
+        assertEquals(HttpStatus.CONFLICT, exception.getCode());
+        verify(inventoryHoldService, never()).completeOrder(any());
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("Delete order using invalid id throws ApiException")
     void deleteOrder_withInvalidId_throwsApiException() {
         var invalidId = 69420L;
-        when(orderRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(orderRepository.findForUpdateById(invalidId)).thenReturn(Optional.empty());
 
         assertThrows(ApiException.class, () -> orderService.deleteOrder(invalidId));
     }
@@ -251,9 +422,10 @@ public class OrderServiceTest {
     @DisplayName("Delete order using valid id does not throw ApiException")
     void deleteOrder_withValidId_doesNotThrowApiException() {
         var validId = o1.getId();
-        when(orderRepository.findById(validId)).thenReturn(Optional.of(o1));
+        when(orderRepository.findForUpdateById(validId)).thenReturn(Optional.of(o1));
 
         assertDoesNotThrow(() -> orderService.deleteOrder(validId));
+        verify(inventoryHoldService).cancelOrder(validId);
     }
 
     @Test
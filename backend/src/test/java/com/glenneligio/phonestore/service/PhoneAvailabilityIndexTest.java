@@ -0,0 +1,76 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.events.PhoneSavedEvent;
+import com.glenneligio.phonestore.events.PhoneStockChangedEvent;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.util.StoreMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Map;
+
+public class PhoneAvailabilityIndexTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PhoneAvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setupEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityIndex = new PhoneAvailabilityIndex(new StoreMetrics(meterRegistry), true, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Reject if not available for phones without an entry leaves the order to the database")
+    void rejectIfNotAvailable_unknownPhone_doesNotThrow() {
+        assertDoesNotThrow(() -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 100L)));
+    }
+
+    @Test
+    @DisplayName("Reject if not available after a failed reservation throws ApiException for the same quantity only")
+    void rejectIfNotAvailable_afterFailedReservation_throwsApiException() {
+        availabilityIndex.reservationFailed(1L, 3L);
+
+        ApiException exception = assertThrows(ApiException.class, () -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 3L)));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getCode());
+        assertDoesNotThrow(() -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 2L)));
+        assertEquals(1.0, meterRegistry.get(StoreMetrics.STOCK_RESERVATIONS_FAILED).tag("reason", "known-sold-out").counter().count());
+    }
+
+    @Test
+    @DisplayName("Released stock lets the orders through again")
+    void rejectIfNotAvailable_afterReleasedStock_doesNotThrow() {
+        availabilityIndex.reservationFailed(1L, 1L);
+
+        availabilityIndex.onPhoneStockChanged(new PhoneStockChangedEvent(Map.of(1L, 2L)));
+
+        assertDoesNotThrow(() -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 2L)));
+        assertThrows(ApiException.class, () -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 3L)));
+    }
+
+    @Test
+    @DisplayName("A restocked phone lets the orders through again")
+    void rejectIfNotAvailable_afterRestock_doesNotThrow() {
+        availabilityIndex.reservationFailed(1L, 1L);
+
+        availabilityIndex.onPhoneSaved(new PhoneSavedEvent(PhoneEntity.builder().id(1L).quantity(50L).build()));
+
+        assertDoesNotThrow(() -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 50L)));
+    }
+
+    @Test
+    @DisplayName("Entries expire after the ttl")
+    void rejectIfNotAvailable_afterTtl_doesNotThrow() {
+        availabilityIndex = new PhoneAvailabilityIndex(new StoreMetrics(meterRegistry), true, Duration.ZERO);
+        availabilityIndex.reservationFailed(1L, 1L);
+
+        assertDoesNotThrow(() -> availabilityIndex.rejectIfNotAvailable(Map.of(1L, 1L)));
+    }
+}
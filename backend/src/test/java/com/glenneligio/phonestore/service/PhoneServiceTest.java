@@ -3,6 +3,8 @@ package com.glenneligio.phonestore.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.glenneligio.phonestore.dtos.PhonePage;
+import com.glenneligio.phonestore.dtos.PhonePageRequest;
 import com.glenneligio.phonestore.entity.BrandEntity;
 import com.glenneligio.phonestore.entity.PhoneEntity;
 import com.glenneligio.phonestore.exception.ApiException;
@@ -14,6 +16,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.modelmapper.ModelMapper;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.parameters.P;
 import org.springframework.web.context.request.WebRequest;
@@ -30,6 +33,8 @@ public class PhoneServiceTest {
     private BrandService brandService;
     @Mock
     private ModelMapper modelMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private PhoneService phoneService;
 
@@ -77,6 +82,30 @@ public class PhoneServiceTest {
         assertEquals(phoneEntityList, result);
     }
 
+    @Test
+    @DisplayName("Get phone page with more phones than the limit returns limited phones and next cursor")
+    void getPhonePage_withMorePhonesThanLimit_returnsNextCursor() {
+        PhonePageRequest pageRequest = PhonePageRequest.of(null, "id", "asc", 1, null);
+        when(phoneRepository.findPhonePage(pageRequest)).thenReturn(phoneEntityList);
+
+        PhonePage<PhoneEntity> result = phoneService.getPhonePage(pageRequest);
+
+        assertEquals(1, result.getPhones().size());
+        assertEquals(phoneEntity1.getId(), result.getNextCursor().getId());
+    }
+
+    @Test
+    @DisplayName("Get phone page with less phones than the limit returns no next cursor")
+    void getPhonePage_withLessPhonesThanLimit_returnsNoNextCursor() {
+        PhonePageRequest pageRequest = PhonePageRequest.of(null, "id", "asc", 10, null);
+        when(phoneRepository.findPhonePage(pageRequest)).thenReturn(phoneEntityList);
+
+        PhonePage<PhoneEntity> result = phoneService.getPhonePage(pageRequest);
+
+        assertEquals(phoneEntityList, result.getPhones());
+        assertNull(result.getNextCursor());
+    }
+
     @Test
     @DisplayName("Get phone by id using invalid id throws ApiException")
     void getPhoneById_usingInvalidId_throwsApiException() {
@@ -0,0 +1,102 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.entity.BrandEntity;
+import com.glenneligio.phonestore.entity.PhoneEntity;
+import com.glenneligio.phonestore.exception.ApiException;
+import com.glenneligio.phonestore.repository.BrandRepository;
+import com.glenneligio.phonestore.repository.PhoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// The batches commit in transactions of their own, so the test data is committed as well and removed afterwards
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class StockReservationCombinerTest {
+    private static final long STOCK = 10L;
+    private static final int RESERVATION_COUNT = 25;
+
+    private BrandRepository brandRepository;
+    private PhoneRepository phoneRepository;
+    private StockReservationCombiner reservationCombiner;
+
+    private BrandEntity brand;
+    private PhoneEntity phone;
+
+    @Autowired
+    public StockReservationCombinerTest(BrandRepository brandRepository, PhoneRepository phoneRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.brandRepository = brandRepository;
+        this.phoneRepository = phoneRepository;
+        this.reservationCombiner = new StockReservationCombiner(phoneRepository, transactionManager, true,
+                Duration.ofMillis(5), 8, 2, Duration.ofSeconds(5));
+    }
+
+    @BeforeEach
+    void setupEach() {
+        brand = brandRepository.save(BrandEntity.builder().name("Flash Sale Brand").build());
+        phone = phoneRepository.save(PhoneEntity.builder()
+                .brand(brand)
+                .price(100.0)
+                .description("Description 1")
+                .discount(0.1)
+                .quantity(STOCK)
+                .specification("Specification 1")
+                .build());
+    }
+
+    @AfterEach
+    void tearDownEach() {
+        reservationCombiner.shutdown();
+        phoneRepository.deleteById(phone.getId());
+        brandRepository.deleteById(brand.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent reservations of the same phone never reserve more than the stock")
+    void submit_moreReservationsThanStock_reservesExactlyTheStock() {
+        List<CompletableFuture<Boolean>> reservations = new ArrayList<>();
+        for(int i = 0; i < RESERVATION_COUNT; i++) {
+            reservations.add(reservationCombiner.submit(phone.getId(), 1L));
+        }
+
+        long reserved = reservations.stream().filter(reservationCombiner::await).count();
+
+        assertEquals(STOCK, reserved);
+        assertEquals(0L, phoneRepository.findById(phone.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    @DisplayName("Reservation of a phone that does not exist fails with not found status")
+    void submit_usingInvalidPhoneId_failsWithNotFound() {
+        CompletableFuture<Boolean> reservation = reservationCombiner.submit(-1L, 1L);
+
+        ApiException exception = assertThrows(ApiException.class, () -> reservationCombiner.await(reservation));
+        assertEquals(HttpStatus.NOT_FOUND, exception.getCode());
+    }
+
+    @Test
+    @DisplayName("Release gives the reserved stock back")
+    void release_givesStockBack() {
+        assertTrue(reservationCombiner.await(reservationCombiner.submit(phone.getId(), 4L)));
+
+        reservationCombiner.release(Map.of(phone.getId(), 4L));
+
+        assertEquals(STOCK, phoneRepository.findById(phone.getId()).orElseThrow().getQuantity());
+    }
+}
@@ -0,0 +1,87 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+public class TokenRevocationListTest {
+
+    private UserRepository userRepository;
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setupEach() {
+        userRepository = mock(UserRepository.class);
+        tokenRevocationList = new TokenRevocationList(userRepository, Duration.ofSeconds(30), 10000);
+    }
+
+    @Test
+    @DisplayName("Is revoked for a user without revocation returns false")
+    void isRevoked_userNotRevoked_returnsFalse() {
+        when(userRepository.findTokensRevokedAtByUsername("Username1")).thenReturn(Optional.of(0L));
+
+        assertFalse(tokenRevocationList.isRevoked("Username1", new Date()));
+    }
+
+    @Test
+    @DisplayName("Is revoked for a token issued before the revocation returns true")
+    void isRevoked_tokenIssuedBeforeRevocation_returnsTrue() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 60000);
+        UserEntity user = UserEntity.builder().username("Username1").build();
+        when(userRepository.findTokensRevokedAtByUsername("Username2")).thenReturn(Optional.of(0L));
+
+        tokenRevocationList.revoke(user);
+
+        assertNotNull(user.getTokensRevokedAt());
+        assertTrue(tokenRevocationList.isRevoked("Username1", issuedAt));
+        assertFalse(tokenRevocationList.isRevoked("Username2", issuedAt));
+        // The revocation of this node is known without reading it back
+        verify(userRepository, never()).findTokensRevokedAtByUsername("Username1");
+    }
+
+    @Test
+    @DisplayName("Is revoked for a token issued after the revocation returns false")
+    void isRevoked_tokenIssuedAfterRevocation_returnsFalse() {
+        tokenRevocationList.revoke(UserEntity.builder().username("Username1").build());
+
+        assertFalse(tokenRevocationList.isRevoked("Username1", new Date(System.currentTimeMillis() + 2000)));
+    }
+
+    @Test
+    @DisplayName("Is revoked sees the revocation stored by another node")
+    void isRevoked_revokedOnAnotherNode_returnsTrue() {
+        Date issuedAt = new Date(System.currentTimeMillis() - 60000);
+        when(userRepository.findTokensRevokedAtByUsername("Username1")).thenReturn(Optional.of(System.currentTimeMillis()));
+
+        assertTrue(tokenRevocationList.isRevoked("Username1", issuedAt));
+    }
+
+    @Test
+    @DisplayName("Is revoked for a user that does not exist returns true")
+    void isRevoked_userDeleted_returnsTrue() {
+        when(userRepository.findTokensRevokedAtByUsername("Username1")).thenReturn(Optional.empty());
+
+        assertTrue(tokenRevocationList.isRevoked("Username1", new Date()));
+    }
+
+    @Test
+    @DisplayName("Is revoked reads the revocation time of a user once within the ttl")
+    void isRevoked_calledTwice_readsOnce() {
+        when(userRepository.findTokensRevokedAtByUsername("Username1")).thenReturn(Optional.of(0L));
+
+        tokenRevocationList.isRevoked("Username1", new Date());
+        tokenRevocationList.isRevoked("Username1", new Date());
+
+        verify(userRepository, times(1)).findTokensRevokedAtByUsername("Username1");
+        assertEquals(1, tokenRevocationList.size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.dtos.XUserDetails;
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class UserDetailsCacheTest {
+
+    private UserDetailsCache userDetailsCache;
+    private AtomicInteger loadCount;
+    private Function<String, UserDetails> loader;
+
+    @BeforeEach
+    void setupEach() {
+        userDetailsCache = new UserDetailsCache(Duration.ofMinutes(5), 100);
+        loadCount = new AtomicInteger();
+        loader = username -> {
+            loadCount.incrementAndGet();
+            return new XUserDetails(UserEntity.builder()
+                    .username(username)
+                    .password("Password1")
+                    .isActive(true)
+                    .userType(UserType.CUSTOMER)
+                    .build());
+        };
+    }
+
+    @Test
+    @DisplayName("Get cached user details loads the user only once")
+    void get_sameUsername_loadsOnce() {
+        UserDetails first = userDetailsCache.get("Username1", loader);
+        UserDetails second = userDetailsCache.get("Username1", loader);
+
+        assertSame(first, second);
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("Get user details after evict loads the user again")
+    void get_afterEvict_loadsAgain() {
+        userDetailsCache.get("Username1", loader);
+        userDetailsCache.evict("Username1");
+        userDetailsCache.get("Username1", loader);
+
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("Get user details with a failing loader does not cache anything")
+    void get_loaderThrows_doesNotCache() {
+        assertThrows(RuntimeException.class, () -> userDetailsCache.get("Username1", username -> {
+            throw new RuntimeException("No user");
+        }));
+        userDetailsCache.get("Username1", loader);
+
+        assertEquals(1, loadCount.get());
+    }
+}
@@ -0,0 +1,52 @@
+package com.glenneligio.phonestore.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.glenneligio.phonestore.entity.UserEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The password check of a login waits for the bounded password encoder, it must not hold a connection meanwhile
+@SpringBootTest
+public class UserLoginTransactionTest {
+
+    @Autowired
+    private UserService userService;
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDownEach() {
+        userService.deleteUser("LoginUsername");
+    }
+
+    @Test
+    @DisplayName("Login checks the password after the transaction of the user lookup has ended")
+    void login_checksPasswordOutsideTransaction() {
+        userService.register(UserEntity.builder()
+                .username("LoginUsername")
+                .fullName("Fullname1")
+                .password("Password1")
+                .email("Email1@gmail.com")
+                .build());
+        AtomicBoolean checkedInTransaction = new AtomicBoolean(true);
+        doAnswer(invocation -> {
+            checkedInTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(any(), any());
+
+        UserEntity result = userService.login("LoginUsername", "Password1");
+
+        assertEquals("LoginUsername", result.getUsername());
+        assertFalse(checkedInTransaction.get());
+    }
+}
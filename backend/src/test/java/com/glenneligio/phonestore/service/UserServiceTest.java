@@ -9,6 +9,7 @@ import com.glenneligio.phonestore.enums.UserType;
 import com.glenneligio.phonestore.exception.ApiException;
 import com.glenneligio.phonestore.repository.PhoneRepository;
 import com.glenneligio.phonestore.repository.UserRepository;
+import com.glenneligio.phonestore.util.StoreMetrics;
 import io.swagger.v3.oas.models.media.XML;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -31,6 +32,12 @@ public class UserServiceTest {
     private UserRepository userRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private UserDetailsCache userDetailsCache;
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+    @Mock
+    private StoreMetrics storeMetrics;
     @InjectMocks
     private UserService userService;
 
@@ -159,10 +166,9 @@ public class UserServiceTest {
     }
 
     @Test
-    @DisplayName("Update user using valid username returns updated User")
+    @DisplayName("Update user using valid username returns updated User without hashing the password again")
     void updateUser_usingValidUsername_returnsUpdatedUser() {
         String validUsername = user1.getUsername();
-        String encryptedPassword = "Encrypted password";
         String newEmail = "NewEmail1@gmail.com";
         String newFullName = "NewFullName";
         UserEntity updatedUserForSaving = UserEntity.builder()
@@ -184,19 +190,68 @@ public class UserServiceTest {
                 .createdAt(user1.getCreatedAt())
                 .email(newEmail)
                 .orderList(user1.getOrderList())
-                .password(encryptedPassword)
+                .password(user1.getPassword())
                 .isActive(true)
                 .fullName(newFullName)
                 .updatedAt(user1.getUpdatedAt())
                 .build();
         when(userRepository.findByUsername(validUsername)).thenReturn(Optional.of(user1));
-        when(passwordEncoder.encode(user1.getPassword())).thenReturn(encryptedPassword);
         when(userRepository.save(updatedUserToSave)).thenReturn(updatedUserToSave);
 
         UserEntity result = userService.updateUser(validUsername, updatedUserForSaving);
 
         assertNotNull(result);
         assertEquals(updatedUserToSave, result);
+        verify(userDetailsCache).evict(validUsername);
+        // user1 is activated by the update, so its tokens are revoked
+        verify(tokenRevocationList).revoke(user1);
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    @DisplayName("Patch user using invalid username throws ApiException")
+    void patchUser_usingInvalidUsername_throwsApiException() {
+        String invalidUsername = "Invalid username";
+        when(userRepository.findByUsername(invalidUsername)).thenReturn(Optional.empty());
+
+        assertThrows(ApiException.class, () -> userService.patchUser(invalidUsername, new UserEntity()));
+    }
+
+    @Test
+    @DisplayName("Patch user without password changes only the given fields and does not hash")
+    void patchUser_withoutPassword_changesGivenFieldsOnly() {
+        String validUsername = user1.getUsername();
+        String storedPassword = user1.getPassword();
+        UserEntity patch = UserEntity.builder().fullName("NewFullName").build();
+        when(userRepository.findByUsername(validUsername)).thenReturn(Optional.of(user1));
+        when(userRepository.save(user1)).thenReturn(user1);
+
+        UserEntity result = userService.patchUser(validUsername, patch);
+
+        assertEquals("NewFullName", result.getFullName());
+        assertEquals("Email1@gmail.com", result.getEmail());
+        assertEquals(storedPassword, result.getPassword());
+        assertEquals(false, result.getIsActive());
+        verify(passwordEncoder, never()).encode(any());
+        verify(userDetailsCache).evict(validUsername);
+        verify(tokenRevocationList, never()).revoke(any());
+    }
+
+    @Test
+    @DisplayName("Patch user with password hashes the new password and revokes the tokens")
+    void patchUser_withPassword_hashesNewPassword() {
+        String validUsername = user1.getUsername();
+        String encryptedPassword = "Encrypted password";
+        UserEntity patch = UserEntity.builder().password("NewPassword").build();
+        when(userRepository.findByUsername(validUsername)).thenReturn(Optional.of(user1));
+        when(passwordEncoder.encode("NewPassword")).thenReturn(encryptedPassword);
+        when(userRepository.save(user1)).thenReturn(user1);
+
+        UserEntity result = userService.patchUser(validUsername, patch);
+
+        assertEquals(encryptedPassword, result.getPassword());
+        verify(passwordEncoder, times(1)).encode(any());
+        verify(tokenRevocationList).revoke(user1);
     }
 
     @Test
@@ -215,6 +270,8 @@ public class UserServiceTest {
         when(userRepository.findByUsername(validUsername)).thenReturn(Optional.of(user1));
 
         assertDoesNotThrow(() -> userService.deleteUser(validUsername));
+        verify(userDetailsCache).evict(validUsername);
+        verify(tokenRevocationList).revoke(user1);
     }
 
     @Test
@@ -258,6 +315,7 @@ public class UserServiceTest {
         when(passwordEncoder.matches(invalidPassword, user1.getPassword())).thenReturn(false);
 
         assertThrows(ApiException.class, () -> userService.login(validUsername, invalidPassword));
+        verify(storeMetrics).loginFailed();
     }
 
     @Test
@@ -272,6 +330,7 @@ public class UserServiceTest {
 
         assertNotNull(result);
         assertEquals(user1, result);
+        verify(storeMetrics).loginSucceeded();
     }
 
     @Test
@@ -0,0 +1,100 @@
+package com.glenneligio.phonestore.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.exception.ApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder boundedPasswordEncoder;
+
+    @AfterEach
+    void tearDownEach() {
+        release.countDown();
+        if(boundedPasswordEncoder != null) boundedPasswordEncoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Encode and matches return the result of the delegate and record the hash time")
+    void encodeAndMatches_returnDelegateResult() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new PrefixPasswordEncoder(null), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        String encoded = boundedPasswordEncoder.encode("Password1");
+
+        assertEquals("encoded:Password1", encoded);
+        assertTrue(boundedPasswordEncoder.matches("Password1", encoded));
+        assertFalse(boundedPasswordEncoder.matches("Password2", encoded));
+        assertEquals(1, meterRegistry.get("phone-store.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("phone-store.password.queue.wait").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Encode when the pool and queue are full throws ApiException with status 503")
+    void encode_poolAndQueueFull_throwsServiceUnavailable() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new PrefixPasswordEncoder(started), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        // One task holds the only thread and a second one fills the queue
+        CompletableFuture.runAsync(() -> boundedPasswordEncoder.encode("Password1"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> boundedPasswordEncoder.encode("Password2"));
+        waitForQueuedTask();
+
+        ApiException exception = assertThrows(ApiException.class, () -> boundedPasswordEncoder.encode("Password3"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getCode());
+    }
+
+    @Test
+    @DisplayName("Encode that does not finish within the timeout throws ApiException with status 503")
+    void encode_slowerThanTimeout_throwsServiceUnavailable() {
+        boundedPasswordEncoder = new BoundedPasswordEncoder(new PrefixPasswordEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        ApiException exception = assertThrows(ApiException.class, () -> boundedPasswordEncoder.encode("Password1"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getCode());
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        for(int i = 0; i < 100 && meterRegistry.get("executor.queued").gauge().value() < 1; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    // Blocks every call until the test releases it when a started latch is given
+    private class PrefixPasswordEncoder implements PasswordEncoder {
+        private final CountDownLatch started;
+
+        PrefixPasswordEncoder(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            if(started != null) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return ("encoded:" + rawPassword).equals(encodedPassword);
+        }
+    }
+}
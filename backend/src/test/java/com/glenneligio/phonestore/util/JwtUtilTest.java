@@ -0,0 +1,91 @@
+package com.glenneligio.phonestore.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.glenneligio.phonestore.dtos.XUserDetails;
+import com.glenneligio.phonestore.entity.UserEntity;
+import com.glenneligio.phonestore.enums.UserType;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+public class JwtUtilTest {
+
+    private static final String SECRET_KEY = "samplesecretkey";
+
+    private JwtUtil jwtUtil;
+    private XUserDetails userDetails;
+
+    @BeforeEach
+    void setupEach() {
+        jwtUtil = new JwtUtil(SECRET_KEY, 100);
+        userDetails = new XUserDetails(UserEntity.builder()
+                .username("Username1")
+                .password("Password1")
+                .isActive(true)
+                .userType(UserType.CUSTOMER)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Verify a generated token returns its subject and expiration")
+    void verify_generatedToken_returnsSubjectAndExpiration() {
+        String token = jwtUtil.generateToken(userDetails);
+
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+
+        assertEquals("Username1", verifiedToken.getSubject());
+        assertTrue(verifiedToken.getExpiration().after(new Date()));
+        assertTrue(jwtUtil.validateToken(verifiedToken, userDetails));
+    }
+
+    @Test
+    @DisplayName("Verify a generated token returns the user type and active flag claims")
+    void verify_generatedToken_returnsUserClaims() {
+        String token = jwtUtil.generateToken(userDetails);
+
+        VerifiedToken verifiedToken = jwtUtil.verify(token);
+
+        assertTrue(verifiedToken.hasUserClaims());
+        assertEquals(UserType.CUSTOMER.getType(), verifiedToken.getUserType());
+        assertEquals(true, verifiedToken.getIsActive());
+        assertNotNull(verifiedToken.getIssuedAt());
+    }
+
+    @Test
+    @DisplayName("Verify the same token twice returns the cached result")
+    void verify_sameToken_returnsCachedResult() {
+        String token = jwtUtil.generateToken(userDetails);
+
+        assertSame(jwtUtil.verify(token), jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Verify a token signed with another key throws JwtException")
+    void verify_tokenWithOtherKey_throwsJwtException() {
+        String token = Jwts.builder()
+                .setSubject("Username1")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(SignatureAlgorithm.HS256, "othersecretkey")
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    @DisplayName("Verify an expired token throws JwtException")
+    void verify_expiredToken_throwsJwtException() {
+        String token = Jwts.builder()
+                .setSubject("Username1")
+                .setExpiration(new Date(System.currentTimeMillis() - 60000))
+                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+}